@@ -7,6 +7,8 @@ import java.util.ArrayList;
 import java.util.Random;
 
 import problems.Evaluator;
+import problems.IncrementalEvaluator;
+import solutions.ElitePool;
 import solutions.Solution;
 
 /**
@@ -48,7 +50,7 @@ public abstract class AbstractGRASP<E> {
 	/**
 	 * the incumbent solution cost
 	 */
-	protected Double incumbentCost;
+	protected double incumbentCost;
 
 	/**
 	 * the best solution
@@ -60,6 +62,17 @@ public abstract class AbstractGRASP<E> {
 	 */
 	protected Solution<E> incumbentSol;
 
+	/**
+	 * the incremental evaluator bound to the incumbent solution
+	 */
+	protected IncrementalEvaluator<E> incumbentEvaluator;
+
+	/**
+	 * the pool which is offered the solution of every iteration after its
+	 * local search, or null.
+	 */
+	protected ElitePool<E> elitePool;
+
 	/**
 	 * the number of iterations the GRASP main loop executes.
 	 */
@@ -75,6 +88,12 @@ public abstract class AbstractGRASP<E> {
 	 */
 	protected ArrayList<E> RCL;
 
+	/**
+	 * the rule which builds the Restricted Candidate List at every step of
+	 * the constructive heuristic.
+	 */
+	protected ConstructionStrategy<E> construction = new AlphaRCL<E>();
+
 	/**
 	 * Creates the Candidate List, which is an ArrayList of candidate elements
 	 * that can enter a solution.
@@ -134,6 +153,38 @@ public abstract class AbstractGRASP<E> {
 		this.iterations = iterations;
 	}
 	
+	/**
+	 * Sets the rule which builds the Restricted Candidate List at every step
+	 * of the constructive heuristic, which is an {@link AlphaRCL} by default.
+	 * 
+	 * @param construction
+	 *            the construction strategy.
+	 */
+	public void setConstructionStrategy(ConstructionStrategy<E> construction) {
+		this.construction = construction;
+	}
+
+	/**
+	 * Sets the pool which is offered the solution of every iteration after
+	 * its local search.
+	 * 
+	 * @param elitePool
+	 *            the pool, or null to keep only the best solution.
+	 */
+	public void setElitePool(ElitePool<E> elitePool) {
+		this.elitePool = elitePool;
+	}
+
+	/**
+	 * Gives the pool which is offered the solution of every iteration after
+	 * its local search.
+	 * 
+	 * @return the pool, or null if there is none.
+	 */
+	public ElitePool<E> getElitePool() {
+		return elitePool;
+	}
+
 	/**
 	 * The GRASP constructive heuristic, which is responsible for building a
 	 * feasible solution by selecting in a greedy-random fashion, candidate
@@ -146,46 +197,26 @@ public abstract class AbstractGRASP<E> {
 		CL = makeCL();
 		RCL = makeRCL();
 		incumbentSol = createEmptySol();
+		incumbentEvaluator = ObjFunction.createIncrementalEvaluator(incumbentSol);
 		incumbentCost = Double.POSITIVE_INFINITY;
 
+		int step = 0;
 		/* Main loop, which repeats until the stopping criteria is reached. */
 		while (!constructiveStopCriteria()) {
 
-			double maxCost = Double.NEGATIVE_INFINITY, minCost = Double.POSITIVE_INFINITY;
-			incumbentCost = ObjFunction.evaluate(incumbentSol);
+			incumbentCost = incumbentSol.cost;
 			updateCL();
 
-			/*
-			 * Explore all candidate elements to enter the solution, saving the
-			 * highest and lowest cost variation achieved by the candidates.
-			 */
-			for (E c : CL) {
-				Double deltaCost = ObjFunction.evaluateInsertionCost(c, incumbentSol);
-				if (deltaCost < minCost)
-					minCost = deltaCost;
-				if (deltaCost > maxCost)
-					maxCost = deltaCost;
-			}
-
-			/*
-			 * Among all candidates, insert into the RCL those with the highest
-			 * performance using parameter alpha as threshold.
-			 */
-			for (E c : CL) {
-				Double deltaCost = ObjFunction.evaluateInsertionCost(c, incumbentSol);
-				if (deltaCost <= minCost + alpha * (maxCost - minCost)) {
-					RCL.add(c);
-				}
-			}
+			/* Fill the RCL by the construction strategy. */
+			construction.makeRCL(CL, incumbentEvaluator, alpha, step++, rng, RCL);
 
 			/* Choose a candidate randomly from the RCL */
 			if(RCL.size() > 0) {
 				int rndIndex = rng.nextInt(RCL.size());
 				E inCand = RCL.get(rndIndex);
 				CL.remove(inCand);
-				incumbentSol.add(inCand);
+				incumbentEvaluator.insert(inCand);
 			}
-			ObjFunction.evaluate(incumbentSol);
 			RCL.clear();
 
 		}
@@ -208,6 +239,8 @@ public abstract class AbstractGRASP<E> {
 		for (int i = 0; i < iterations && intime ; i++) {	
 			constructiveHeuristic();
 			localSearch();
+			if (elitePool != null)
+				elitePool.offer(incumbentSol);
 			if (bestSol.cost > incumbentSol.cost) {
 				bestSol = new Solution<E>(incumbentSol);
 				if (verbose) {
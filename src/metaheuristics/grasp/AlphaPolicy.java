@@ -0,0 +1,168 @@
+package metaheuristics.grasp;
+
+import java.io.PrintStream;
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Adaptive rule for choosing the alpha of each construction of a
+ * {@link ReactiveGRASP}, as a multi-armed bandit whose arms are the alphas.
+ * After each construction and its local search the policy is told the cost
+ * of the resulting solution, which is being minimized. Costs are turned into
+ * rewards in [0,1] relative to the best and worst costs seen so far, so that
+ * the policies are independent of the scale of the objective function.
+ *
+ * The policy also keeps the statistics of its run, which are written by
+ * {@link #writeStats(PrintStream, double[])} to compare the policies.
+ *
+ * @author ccavellucci, fusberti
+ */
+public abstract class AlphaPolicy {
+
+	/**
+	 * the number of alphas.
+	 */
+	protected final int arms;
+
+	/**
+	 * the number of solutions built with each alpha.
+	 */
+	protected final int[] pulls;
+
+	/**
+	 * the sum of the costs of the solutions built with each alpha.
+	 */
+	protected final double[] costsSum;
+
+	/**
+	 * the best cost of the solutions built with each alpha.
+	 */
+	protected final double[] bestCosts;
+
+	/**
+	 * the number of solutions built so far.
+	 */
+	protected int iteration;
+
+	/**
+	 * the best cost seen so far.
+	 */
+	protected double bestCost = Double.POSITIVE_INFINITY;
+
+	/**
+	 * the worst cost seen so far.
+	 */
+	protected double worstCost = Double.NEGATIVE_INFINITY;
+
+	/**
+	 * the iteration at which the best cost was found.
+	 */
+	protected int bestIteration;
+
+	/**
+	 * the alpha which built the most solutions so far.
+	 */
+	protected int leader;
+
+	/**
+	 * the iteration since which {@link #leader} has built the most solutions,
+	 * which tells when the policy settled on an alpha.
+	 */
+	protected int leaderSince;
+
+	/**
+	 * Constructor for the AlphaPolicy class.
+	 *
+	 * @param arms
+	 *            The number of alphas.
+	 */
+	public AlphaPolicy(int arms) {
+		this.arms = arms;
+		this.pulls = new int[arms];
+		this.costsSum = new double[arms];
+		this.bestCosts = new double[arms];
+		Arrays.fill(bestCosts, Double.POSITIVE_INFINITY);
+	}
+
+	/**
+	 * Gives the name of the policy, used in its statistics.
+	 *
+	 * @return the name of the policy.
+	 */
+	public abstract String getName();
+
+	/**
+	 * Chooses the alpha of the next construction.
+	 *
+	 * @param rng
+	 *            the random number generator of the GRASP.
+	 * @return the index of the alpha.
+	 */
+	public abstract int select(Random rng);
+
+	/**
+	 * Records the cost of a solution built with an alpha and improved by the
+	 * local search. Subclasses which keep their own state must call this
+	 * method.
+	 *
+	 * @param alpha
+	 *            the index of the alpha.
+	 * @param cost
+	 *            the cost of the solution.
+	 */
+	public void update(int alpha, double cost) {
+		iteration++;
+		pulls[alpha]++;
+		costsSum[alpha] += cost;
+		if (cost < bestCosts[alpha])
+			bestCosts[alpha] = cost;
+		if (cost < bestCost) {
+			bestCost = cost;
+			bestIteration = iteration;
+		}
+		if (cost > worstCost)
+			worstCost = cost;
+		if (pulls[alpha] > pulls[leader]) {
+			if (alpha != leader)
+				leaderSince = iteration;
+			leader = alpha;
+		}
+	}
+
+	/**
+	 * Turns a cost into a reward in [0,1], which is 1 for the best cost seen
+	 * so far and 0 for the worst one.
+	 *
+	 * @param cost
+	 *            the cost.
+	 * @return the reward of the cost.
+	 */
+	public double reward(double cost) {
+		if (!(worstCost > bestCost))
+			return 1.0;
+		return Math.max(0.0, Math.min(1.0, (worstCost - cost) / (worstCost - bestCost)));
+	}
+
+	/**
+	 * Writes the statistics of the run: a summary line with the number of
+	 * solutions, the best cost, the iteration it was found at, the alpha
+	 * chosen the most and the iteration since which it is, followed by a line
+	 * for each alpha with its number of solutions, their mean cost and their
+	 * best cost.
+	 *
+	 * @param out
+	 *            the stream the statistics are written to.
+	 * @param alphas
+	 *            the alphas, used to label the lines.
+	 */
+	public void writeStats(PrintStream out, double[] alphas) {
+		out.println("policy=" + getName() + " iterations=" + iteration + " bestCost=" + bestCost
+				+ " bestIteration=" + bestIteration + " leader=" + alphas[leader] + " leaderSince=" + leaderSince);
+		for (int a = 0; a < arms; a++) {
+			double mean = (pulls[a] > 0) ? costsSum[a] / pulls[a] : Double.NaN;
+			out.println("  alpha=" + alphas[a] + " pulls=" + pulls[a] + " meanCost=" + mean + " bestCost="
+					+ bestCosts[a]);
+		}
+	}
+
+}
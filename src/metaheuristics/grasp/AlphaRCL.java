@@ -0,0 +1,64 @@
+package metaheuristics.grasp;
+
+import java.util.List;
+import java.util.Random;
+
+import problems.IncrementalEvaluator;
+
+/**
+ * The value-based Restricted Candidate List of the GRASP. Every candidate is
+ * scored, and those whose insertion cost is within alpha of the cheapest one,
+ * relative to the range of costs, enter the RCL.
+ *
+ * @author ccavellucci, fusberti
+ * @param <E>
+ *            Generic type of the element which composes the solution.
+ */
+public class AlphaRCL<E> implements ConstructionStrategy<E> {
+
+	/**
+	 * the insertion cost of each candidate, filled at every step.
+	 */
+	protected double[] insertionCosts = new double[0];
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see metaheuristics.grasp.ConstructionStrategy#makeRCL(java.util.List,
+	 * problems.IncrementalEvaluator, double, int, java.util.Random,
+	 * java.util.List)
+	 */
+	@Override
+	public void makeRCL(List<E> CL, IncrementalEvaluator<E> evaluator, double alpha, int step, Random rng,
+			List<E> RCL) {
+
+		double maxCost = Double.NEGATIVE_INFINITY, minCost = Double.POSITIVE_INFINITY;
+		if (insertionCosts.length < CL.size())
+			insertionCosts = new double[CL.size()];
+
+		/*
+		 * Explore all candidate elements to enter the solution, saving the
+		 * highest and lowest cost variation achieved by the candidates.
+		 */
+		evaluator.evaluateInsertionCosts(CL, insertionCosts);
+		for (int k = 0; k < CL.size(); k++) {
+			double deltaCost = insertionCosts[k];
+			if (deltaCost < minCost)
+				minCost = deltaCost;
+			if (deltaCost > maxCost)
+				maxCost = deltaCost;
+		}
+
+		/*
+		 * Among all candidates, insert into the RCL those with the highest
+		 * performance using parameter alpha as threshold.
+		 */
+		for (int k = 0; k < CL.size(); k++) {
+			if (insertionCosts[k] <= minCost + alpha * (maxCost - minCost)) {
+				RCL.add(CL.get(k));
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,43 @@
+package metaheuristics.grasp;
+
+import java.util.List;
+import java.util.Random;
+
+import problems.IncrementalEvaluator;
+
+/**
+ * A rule for building the Restricted Candidate List at each step of a GRASP
+ * constructive heuristic, from which the element inserted into the solution
+ * is then drawn uniformly at random. The default rule of the GRASP cores is
+ * {@link AlphaRCL}, which scores every candidate at every step; the other
+ * rules score fewer candidates, which pays off on large instances.
+ *
+ * @author ccavellucci, fusberti
+ * @param <E>
+ *            Generic type of the element which composes the solution.
+ */
+public interface ConstructionStrategy<E> {
+
+	/**
+	 * Fills the Restricted Candidate List of a step of the constructive
+	 * heuristic.
+	 *
+	 * @param CL
+	 *            the Candidate List, which is not modified.
+	 * @param evaluator
+	 *            the incremental evaluator bound to the solution under
+	 *            construction.
+	 * @param alpha
+	 *            the GRASP greediness-randomness parameter of the current
+	 *            construction (within the range [0,1]).
+	 * @param step
+	 *            the number of steps of the construction before this one.
+	 * @param rng
+	 *            the random number generator of the GRASP.
+	 * @param RCL
+	 *            the Restricted Candidate List, empty on entry.
+	 */
+	public abstract void makeRCL(List<E> CL, IncrementalEvaluator<E> evaluator, double alpha, int step, Random rng,
+			List<E> RCL);
+
+}
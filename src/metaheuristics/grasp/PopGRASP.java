@@ -7,6 +7,8 @@ import java.util.ArrayList;
 import java.util.Random;
 
 import problems.Evaluator;
+import problems.IncrementalEvaluator;
+import solutions.ElitePool;
 import solutions.Solution;
 
 /**
@@ -48,7 +50,7 @@ public abstract class PopGRASP<E> {
 	/**
 	 * the incumbent solution cost
 	 */
-	protected Double incumbentCost;
+	protected double incumbentCost;
 
 	/**
 	 * the best solution
@@ -60,6 +62,17 @@ public abstract class PopGRASP<E> {
 	 */
 	protected Solution<E> incumbentSol;
 
+	/**
+	 * the incremental evaluator bound to the incumbent solution
+	 */
+	protected IncrementalEvaluator<E> incumbentEvaluator;
+
+	/**
+	 * the pool which is offered the solution of every iteration after its
+	 * local search, or null.
+	 */
+	protected ElitePool<E> elitePool;
+
 	/**
 	 * the number of iterations the GRASP main loop executes.
 	 */
@@ -75,6 +88,12 @@ public abstract class PopGRASP<E> {
 	 */
 	protected ArrayList<E> RCL;
 
+	/**
+	 * the rule which builds the Restricted Candidate List at every step of
+	 * the constructive heuristic.
+	 */
+	protected ConstructionStrategy<E> construction = new AlphaRCL<E>();
+
 	/**
 	 * Creates the Candidate List, which is an ArrayList of candidate elements
 	 * that can enter a solution.
@@ -134,6 +153,38 @@ public abstract class PopGRASP<E> {
 		this.iterations = iterations;
 	}
 	
+	/**
+	 * Sets the rule which builds the Restricted Candidate List at every step
+	 * of the constructive heuristic, which is an {@link AlphaRCL} by default.
+	 * 
+	 * @param construction
+	 *            the construction strategy.
+	 */
+	public void setConstructionStrategy(ConstructionStrategy<E> construction) {
+		this.construction = construction;
+	}
+
+	/**
+	 * Sets the pool which is offered the solution of every iteration after
+	 * its local search.
+	 * 
+	 * @param elitePool
+	 *            the pool, or null to keep only the best solution.
+	 */
+	public void setElitePool(ElitePool<E> elitePool) {
+		this.elitePool = elitePool;
+	}
+
+	/**
+	 * Gives the pool which is offered the solution of every iteration after
+	 * its local search.
+	 * 
+	 * @return the pool, or null if there is none.
+	 */
+	public ElitePool<E> getElitePool() {
+		return elitePool;
+	}
+
 	/**
 	 * The GRASP constructive heuristic, which is responsible for building a
 	 * feasible solution by selecting in a greedy-random fashion, candidate
@@ -147,39 +198,20 @@ public abstract class PopGRASP<E> {
 		CL = makeCL();
 		RCL = makeRCL();
 		incumbentSol = createEmptySol();
+		incumbentEvaluator = ObjFunction.createIncrementalEvaluator(incumbentSol);
 		incumbentCost = Double.POSITIVE_INFINITY;
 		int count = 0;
+		int step = 0;
 
 		/* Main loop, which repeats until the stopping criteria is reached. */
 		while (!constructiveStopCriteria()) {
 
-			double maxCost = Double.NEGATIVE_INFINITY, minCost = Double.POSITIVE_INFINITY;
-			incumbentCost = ObjFunction.evaluate(incumbentSol);
+			incumbentCost = incumbentSol.cost;
 			updateCL();
 
-			/*
-			 * Explore all candidate elements to enter the solution, saving the
-			 * highest and lowest cost variation achieved by the candidates.
-			 */
-			for (E c : CL) {
-				Double deltaCost = ObjFunction.evaluateInsertionCost(c, incumbentSol);
-				if (deltaCost < minCost)
-					minCost = deltaCost;
-				if (deltaCost > maxCost)
-					maxCost = deltaCost;
-			}
-
-			/*
-			 * Among all candidates, insert into the RCL those with the highest
-			 * performance using parameter alpha as threshold.
-			 */
-			for (E c : CL) {
-				Double deltaCost = ObjFunction.evaluateInsertionCost(c, incumbentSol);
-				if (deltaCost <= minCost + alpha * (maxCost - minCost)) {
-					RCL.add(c);
-					count++;
-				}
-			}
+			/* Fill the RCL by the construction strategy. */
+			construction.makeRCL(CL, incumbentEvaluator, alpha, step++, rng, RCL);
+			count += RCL.size();
 
 			//Aqui
 			/* Choose a candidate randomly from the RCL */
@@ -187,13 +219,21 @@ public abstract class PopGRASP<E> {
 				int rndIndex = rng.nextInt(RCL.size());
 				E inCand = RCL.get(rndIndex);
 				CL.remove(inCand);
-				incumbentSol.add(inCand);
+				incumbentEvaluator.insert(inCand);
 			}
 			//System.out.println("Solution: "+incumbentSol);
+			boolean moved = false;
 			if(count > 4) {
-				consc_localsearch();
+				moved = consc_localsearch();
 				count = 0;
 			}
+			/*
+			 * An insertion alone does not count as an improvement: the
+			 * construction only goes on when the local search moved the
+			 * solution to a cheaper one.
+			 */
+			if (!moved)
+				incumbentCost = incumbentSol.cost;
 			
 			
 			
@@ -204,9 +244,10 @@ public abstract class PopGRASP<E> {
 		return incumbentSol;
 	}
 
-	private Solution<E> consc_localsearch() {
+	private boolean consc_localsearch() {
 		Double minDeltaCost;
 		E bestCandIn = null, bestCandOut = null;
+		boolean moved = false;
 		do {
 			minDeltaCost = Double.POSITIVE_INFINITY;
 			updateCL();
@@ -214,7 +255,7 @@ public abstract class PopGRASP<E> {
 			// Evaluate insertions
 			
 			for (E candIn : CL) {
-				double deltaCost = ObjFunction.evaluateInsertionCost(candIn, incumbentSol);
+				double deltaCost = incumbentEvaluator.evaluateInsertionCost(candIn);
 				if (deltaCost < minDeltaCost) {
 					minDeltaCost = deltaCost;
 					bestCandIn = candIn;
@@ -223,7 +264,7 @@ public abstract class PopGRASP<E> {
 			}
 			// Evaluate removals
 			for (E candOut : incumbentSol) {
-				double deltaCost = ObjFunction.evaluateRemovalCost(candOut, incumbentSol);
+				double deltaCost = incumbentEvaluator.evaluateRemovalCost(candOut);
 				if (deltaCost < minDeltaCost) {
 					minDeltaCost = deltaCost;
 					bestCandIn = null;
@@ -243,20 +284,20 @@ public abstract class PopGRASP<E> {
 				}
 			}*/
 			// Implement the best move, if it reduces the solution cost.
-			if (minDeltaCost < -Double.MIN_VALUE) {
+			if (minDeltaCost < 0) {
 				if (bestCandOut != null) {
-					incumbentSol.remove(bestCandOut);
+					incumbentEvaluator.remove(bestCandOut);
 					CL.add(bestCandOut);
 				}
 				if (bestCandIn != null) {
-					incumbentSol.add(bestCandIn);
+					incumbentEvaluator.insert(bestCandIn);
 					CL.remove(bestCandIn);
 				}
-				ObjFunction.evaluate(incumbentSol);
+				moved = true;
 			}
-		} while (minDeltaCost < -Double.MIN_VALUE);
+		} while (minDeltaCost < 0);
 		
-		return null;
+		return moved;
 	}
 	
 	
@@ -280,6 +321,8 @@ public abstract class PopGRASP<E> {
 			
 				constructiveHeuristic();
 				localSearch();
+				if (elitePool != null)
+					elitePool.offer(incumbentSol);
 				if (bestSol.cost > incumbentSol.cost) {
 					bestSol = new Solution<E>(incumbentSol);
 					//System.out.println("BestSol = "+bestSol);
@@ -0,0 +1,105 @@
+package metaheuristics.grasp;
+
+import java.util.List;
+import java.util.Random;
+
+import problems.IncrementalEvaluator;
+
+/**
+ * The random plus greedy construction of Resende and Ribeiro. The first p
+ * steps insert a candidate drawn uniformly from the improving ones, and the
+ * remaining steps are greedy: the RCL holds the candidates of least insertion
+ * cost. The number of random steps takes the place of alpha as the
+ * greediness-randomness parameter.
+ *
+ * A random step scores the candidates it draws until one improves the
+ * solution, since the construction stops at the first step which does not,
+ * and only scans the whole Candidate List after {@link #DRAWS} failed draws.
+ *
+ * @author ccavellucci, fusberti
+ * @param <E>
+ *            Generic type of the element which composes the solution.
+ */
+public class RandomPlusGreedy<E> implements ConstructionStrategy<E> {
+
+	/**
+	 * the number of candidates drawn at a random step before the whole
+	 * Candidate List is scanned for the improving ones.
+	 */
+	public static final int DRAWS = 16;
+
+	/**
+	 * the number of random steps at the beginning of each construction.
+	 */
+	protected final int randomSteps;
+
+	/**
+	 * the insertion cost of each candidate, filled when the whole Candidate
+	 * List is scanned.
+	 */
+	protected double[] insertionCosts = new double[0];
+
+	/**
+	 * Constructor for the RandomPlusGreedy class.
+	 *
+	 * @param randomSteps
+	 *            The number of random steps at the beginning of each
+	 *            construction.
+	 */
+	public RandomPlusGreedy(int randomSteps) {
+		if (randomSteps < 0)
+			throw new IllegalArgumentException("The number of random steps must not be negative: " + randomSteps);
+		this.randomSteps = randomSteps;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see metaheuristics.grasp.ConstructionStrategy#makeRCL(java.util.List,
+	 * problems.IncrementalEvaluator, double, int, java.util.Random,
+	 * java.util.List)
+	 */
+	@Override
+	public void makeRCL(List<E> CL, IncrementalEvaluator<E> evaluator, double alpha, int step, Random rng,
+			List<E> RCL) {
+
+		if (CL.isEmpty())
+			return;
+
+		if (step < randomSteps) {
+			for (int d = 0; d < DRAWS; d++) {
+				E cand = CL.get(rng.nextInt(CL.size()));
+				if (evaluator.evaluateInsertionCost(cand) < 0) {
+					RCL.add(cand);
+					return;
+				}
+			}
+		}
+
+		double minCost = Double.POSITIVE_INFINITY;
+		if (insertionCosts.length < CL.size())
+			insertionCosts = new double[CL.size()];
+
+		evaluator.evaluateInsertionCosts(CL, insertionCosts);
+		if (step < randomSteps) {
+			for (int k = 0; k < CL.size(); k++) {
+				if (insertionCosts[k] < 0) {
+					RCL.add(CL.get(k));
+				}
+			}
+			if (!RCL.isEmpty())
+				return;
+		}
+		for (int k = 0; k < CL.size(); k++) {
+			if (insertionCosts[k] < minCost)
+				minCost = insertionCosts[k];
+		}
+		for (int k = 0; k < CL.size(); k++) {
+			if (insertionCosts[k] == minCost) {
+				RCL.add(CL.get(k));
+			}
+		}
+
+	}
+
+}
@@ -9,6 +9,8 @@ import java.util.Map;
 import java.util.Random;
 
 import problems.Evaluator;
+import problems.IncrementalEvaluator;
+import solutions.ElitePool;
 import solutions.Solution;
 
 /**
@@ -51,6 +53,46 @@ public abstract class ReactiveGRASP<E> {
 	protected int minNuberOfSolutionsPerAlpha;
 	
 	protected Boolean readyToBalanceAlphasProbabilities;
+
+	/**
+	 * the cumulative sums of the probabilities of the alphas, searched by
+	 * {@link #getAlphaIndex(double)}.
+	 */
+	protected double[] alphasCumulativeProbabilities;
+
+	/**
+	 * the quality of each alpha, filled when the probabilities are balanced.
+	 */
+	protected double[] alphasQualities;
+
+	/**
+	 * the number of alphas with fewer solutions than
+	 * minNuberOfSolutionsPerAlpha.
+	 */
+	protected int unreadyAlphas;
+
+	/**
+	 * the number of constructions between two balances of the probabilities
+	 * of the alphas.
+	 */
+	protected int balanceInterval = 1;
+
+	/**
+	 * the number of constructions since the last balance of the
+	 * probabilities of the alphas.
+	 */
+	protected int constructionsSinceBalance;
+
+	/**
+	 * the policy which chooses the alpha of each construction, or null if the
+	 * alphas are drawn by their balanced probabilities.
+	 */
+	protected AlphaPolicy alphaPolicy;
+
+	/**
+	 * the index of the alpha of the current construction.
+	 */
+	protected int alphaIndex;
 	
 	/**
 	 * the best solution cost
@@ -60,7 +102,7 @@ public abstract class ReactiveGRASP<E> {
 	/**
 	 * the incumbent solution cost
 	 */
-	protected Double incumbentCost;
+	protected double incumbentCost;
 
 	/**
 	 * the best solution
@@ -72,6 +114,17 @@ public abstract class ReactiveGRASP<E> {
 	 */
 	protected Solution<E> incumbentSol;
 
+	/**
+	 * the incremental evaluator bound to the incumbent solution
+	 */
+	protected IncrementalEvaluator<E> incumbentEvaluator;
+
+	/**
+	 * the pool which is offered the solution of every iteration after its
+	 * local search, or null.
+	 */
+	protected ElitePool<E> elitePool;
+
 	/**
 	 * the number of iterations the GRASP main loop executes.
 	 */
@@ -87,6 +140,12 @@ public abstract class ReactiveGRASP<E> {
 	 */
 	protected ArrayList<E> RCL;
 
+	/**
+	 * the rule which builds the Restricted Candidate List at every step of
+	 * the constructive heuristic.
+	 */
+	protected ConstructionStrategy<E> construction = new AlphaRCL<E>();
+
 	/**
 	 * Creates the Candidate List, which is an ArrayList of candidate elements
 	 * that can enter a solution.
@@ -149,10 +208,40 @@ public abstract class ReactiveGRASP<E> {
 		for (int i = 0; i < alphasProbabilities.length; i++) {
 			this.alphasProbabilities[i] = (double) 1/alphasProbabilities.length;
 		}
+		this.alphasCumulativeProbabilities = new double[alphas.length];
+		this.alphasQualities = new double[alphas.length];
+		this.updateCumulativeProbabilities();
 		this.iterations = iterations;		
 		this.minNuberOfSolutionsPerAlpha = minNuberOfSolutionsPerAlpha;
+		this.unreadyAlphas = (minNuberOfSolutionsPerAlpha > 0) ? alphas.length : 0;
 		this.readyToBalanceAlphasProbabilities = false;
 	}
+
+	/**
+	 * Sets the policy which chooses the alpha of each construction, in place
+	 * of the probabilities balanced by the mean cost of the constructions.
+	 * The policy is told the cost of each solution after its local search.
+	 * 
+	 * @param alphaPolicy
+	 *            the policy, or null to balance the probabilities.
+	 */
+	public void setAlphaPolicy(AlphaPolicy alphaPolicy) {
+		this.alphaPolicy = alphaPolicy;
+	}
+
+	/**
+	 * Sets the number of constructions between two balances of the
+	 * probabilities of the alphas, as in the block schedule of Prais and
+	 * Ribeiro. By default they are balanced after every construction.
+	 * 
+	 * @param balanceInterval
+	 *            the number of constructions of a block (at least 1).
+	 */
+	public void setBalanceInterval(int balanceInterval) {
+		if (balanceInterval < 1)
+			throw new IllegalArgumentException("The balance interval must be positive: " + balanceInterval);
+		this.balanceInterval = balanceInterval;
+	}
 	
 //	protected Double getAlphaAverageCost(i) {
 //		Double totalCost = 0;
@@ -169,20 +258,11 @@ public abstract class ReactiveGRASP<E> {
 	
 	public void balanceAlphasProbabilities() {		
 //		check if each alpha has the minNuberOfSolutionsPerAlpha
-		boolean ready = true;
-		if (!this.readyToBalanceAlphasProbabilities) {								
-			for (int i = 0; i < this.alphasSolutionsNumber.length; i++) {
-				if (this.alphasSolutionsNumber[i] < this.minNuberOfSolutionsPerAlpha) {
-					ready = false;
-					break;
-				}
-			}
-		}
-		this.readyToBalanceAlphasProbabilities = ready;
+		this.readyToBalanceAlphasProbabilities = (this.unreadyAlphas == 0);
 //		get value
 		if (this.readyToBalanceAlphasProbabilities) {
 //			System.out.println("now balance!!!!");
-			double[] qs = new double[alphas.length];
+			double[] qs = this.alphasQualities;
 			double dSum = 0;
 //			calculate q	
 //			System.out.println("Quoeficients values");
@@ -199,35 +279,80 @@ public abstract class ReactiveGRASP<E> {
 			for (int i = 0; i < alphas.length; i++) {
 				this.alphasProbabilities[i] = qs[i]/dSum;
 			}			
+			this.updateCumulativeProbabilities();
 		}
 	}
-	
-	public Integer getAlphaIndex(double prob) {
+
+	/**
+	 * Recomputes the cumulative sums of the probabilities of the alphas, in
+	 * the order of the alphas.
+	 */
+	protected void updateCumulativeProbabilities() {
 		double count = 0d;
-		
-		
-		
-//		System.out.println("Trying to find "+prob);
-//		System.out.println("Probabilities values:");
-//		for (int i = 0; i < alphasProbabilities.length; i++) {
-//			System.out.print(alphasProbabilities[i] + ",");
-//		}
-//		System.out.println();
-		
-		
-		
-		
 		for (int i = 0; i < alphas.length; i++) {
 			count += alphasProbabilities[i];
-			if (prob <= count) {
-				return i;				
-			}			
+			alphasCumulativeProbabilities[i] = count;
 		}
-		return null;
+	}
+	
+	/**
+	 * Draws an alpha by the inverse of the cumulative distribution of their
+	 * probabilities, searched in O(log k).
+	 * 
+	 * @param prob
+	 *            a number uniformly drawn from [0,1).
+	 * @return the index of the first alpha whose cumulative probability is at
+	 *         least prob.
+	 */
+	public int getAlphaIndex(double prob) {
+		int low = 0, high = alphas.length - 1;
+//		rounding may leave the total probability just below prob
+		if (prob > alphasCumulativeProbabilities[high])
+			prob = alphasCumulativeProbabilities[high];
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (prob <= alphasCumulativeProbabilities[mid])
+				high = mid;
+			else
+				low = mid + 1;
+		}
+		return low;
 	}
 	
 	
 	
+	/**
+	 * Sets the rule which builds the Restricted Candidate List at every step
+	 * of the constructive heuristic, which is an {@link AlphaRCL} by default.
+	 * 
+	 * @param construction
+	 *            the construction strategy.
+	 */
+	public void setConstructionStrategy(ConstructionStrategy<E> construction) {
+		this.construction = construction;
+	}
+
+	/**
+	 * Sets the pool which is offered the solution of every iteration after
+	 * its local search.
+	 * 
+	 * @param elitePool
+	 *            the pool, or null to keep only the best solution.
+	 */
+	public void setElitePool(ElitePool<E> elitePool) {
+		this.elitePool = elitePool;
+	}
+
+	/**
+	 * Gives the pool which is offered the solution of every iteration after
+	 * its local search.
+	 * 
+	 * @return the pool, or null if there is none.
+	 */
+	public ElitePool<E> getElitePool() {
+		return elitePool;
+	}
+
 	/**
 	 * The GRASP constructive heuristic, which is responsible for building a
 	 * feasible solution by selecting in a greedy-random fashion, candidate
@@ -240,9 +365,11 @@ public abstract class ReactiveGRASP<E> {
 		CL = makeCL();
 		RCL = makeRCL();
 		incumbentSol = createEmptySol();
+		incumbentEvaluator = ObjFunction.createIncrementalEvaluator(incumbentSol);
 		incumbentCost = Double.POSITIVE_INFINITY;		
-		Integer alphaIndex = this.getAlphaIndex(this.rng.nextDouble());
+		alphaIndex = (this.alphaPolicy != null) ? this.alphaPolicy.select(rng) : this.getAlphaIndex(this.rng.nextDouble());
 		Double alpha = this.alphas[alphaIndex];		
+		int step = 0;
 		/* Main loop, which repeats until the stopping criteria is reached. */
 		while (!constructiveStopCriteria()) {
 
@@ -250,31 +377,10 @@ public abstract class ReactiveGRASP<E> {
 			if (CL.size() == 0) {
 				break;
 			}
-			double maxCost = Double.NEGATIVE_INFINITY, minCost = Double.POSITIVE_INFINITY;
-			incumbentCost = ObjFunction.evaluate(incumbentSol);			
-
-			/*
-			 * Explore all candidate elements to enter the solution, saving the
-			 * highest and lowest cost variation achieved by the candidates.
-			 */
-			for (E c : CL) {
-				Double deltaCost = ObjFunction.evaluateInsertionCost(c, incumbentSol);
-				if (deltaCost < minCost)
-					minCost = deltaCost;
-				if (deltaCost > maxCost)
-					maxCost = deltaCost;
-			}
+			incumbentCost = incumbentSol.cost;
 
-			/*
-			 * Among all candidates, insert into the RCL those with the highest
-			 * performance using parameter alpha as threshold.
-			 */			
-			for (E c : CL) {
-				Double deltaCost = ObjFunction.evaluateInsertionCost(c, incumbentSol);
-				if (deltaCost <= minCost + alpha * (maxCost - minCost)) {
-					RCL.add(c);
-				}
-			}
+			/* Fill the RCL by the construction strategy. */
+			construction.makeRCL(CL, incumbentEvaluator, alpha, step++, rng, RCL);
 //			System.out.println("Incumbet cost is "+incumbentCost);
 //			System.out.println("RCL itens between "+minCost+" and "+alpha * (maxCost - minCost));
 			/* Choose a candidate randomly from the RCL */
@@ -282,14 +388,19 @@ public abstract class ReactiveGRASP<E> {
 				int rndIndex = rng.nextInt(RCL.size());
 				E inCand = RCL.get(rndIndex);
 				CL.remove(inCand);
-				incumbentSol.add(inCand);
+				incumbentEvaluator.insert(inCand);
 			}
-			ObjFunction.evaluate(incumbentSol);
 			RCL.clear();
 		}
-		this.alphasSolutionsCostsSum[alphaIndex] += incumbentCost;
-		this.alphasSolutionsNumber[alphaIndex]++;
-		this.balanceAlphasProbabilities();
+		if (this.alphaPolicy == null) {
+			this.alphasSolutionsCostsSum[alphaIndex] += incumbentCost;
+			if (++this.alphasSolutionsNumber[alphaIndex] == this.minNuberOfSolutionsPerAlpha)
+				this.unreadyAlphas--;
+			if (++this.constructionsSinceBalance >= this.balanceInterval) {
+				this.constructionsSinceBalance = 0;
+				this.balanceAlphasProbabilities();
+			}
+		}
 		return incumbentSol;
 	}
 
@@ -309,6 +420,10 @@ public abstract class ReactiveGRASP<E> {
 		for (int i = 0; i < iterations && intime ; i++) {
 				constructiveHeuristic();
 				localSearch();
+				if (elitePool != null)
+					elitePool.offer(incumbentSol);
+				if (alphaPolicy != null)
+					alphaPolicy.update(alphaIndex, incumbentSol.cost);
 				if (bestSol.cost > incumbentSol.cost) {
 					bestSol = new Solution<E>(incumbentSol);
 					if (verbose) {
@@ -321,6 +436,8 @@ public abstract class ReactiveGRASP<E> {
 				}
 			
 		}
+		if (verbose && alphaPolicy != null)
+			alphaPolicy.writeStats(System.out, alphas);
 
 		return bestSol;
 	}
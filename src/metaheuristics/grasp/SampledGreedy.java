@@ -0,0 +1,112 @@
+package metaheuristics.grasp;
+
+import java.util.List;
+import java.util.Random;
+
+import problems.IncrementalEvaluator;
+
+/**
+ * The sampled greedy construction of Resende and Ribeiro. At each step a
+ * sample of p distinct candidates is drawn uniformly from the Candidate List
+ * and only those are scored; the cheapest of them is the single element of
+ * the RCL. The size of the sample takes the place of alpha as the
+ * greediness-randomness parameter: p = |CL| is a greedy construction.
+ *
+ * Since the construction stops at the first step which does not improve the
+ * solution, a sample without improving candidates is followed by a scan of
+ * the whole Candidate List, so that the construction only stops when none of
+ * the candidates improves the solution.
+ *
+ * @author ccavellucci, fusberti
+ * @param <E>
+ *            Generic type of the element which composes the solution.
+ */
+public class SampledGreedy<E> implements ConstructionStrategy<E> {
+
+	/**
+	 * the number of candidates scored at each step.
+	 */
+	protected final int sampleSize;
+
+	/**
+	 * the insertion cost of each candidate, filled when the whole Candidate
+	 * List is scanned.
+	 */
+	protected double[] insertionCosts = new double[0];
+
+	/**
+	 * the draw in which each position of the Candidate List was last sampled.
+	 */
+	protected int[] drawn = new int[0];
+
+	/**
+	 * the mark of the current draw in {@link #drawn}.
+	 */
+	protected int draw;
+
+	/**
+	 * Constructor for the SampledGreedy class.
+	 *
+	 * @param sampleSize
+	 *            The number of candidates scored at each step (at least 1).
+	 */
+	public SampledGreedy(int sampleSize) {
+		if (sampleSize < 1)
+			throw new IllegalArgumentException("The sample size must be positive: " + sampleSize);
+		this.sampleSize = sampleSize;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see metaheuristics.grasp.ConstructionStrategy#makeRCL(java.util.List,
+	 * problems.IncrementalEvaluator, double, int, java.util.Random,
+	 * java.util.List)
+	 */
+	@Override
+	public void makeRCL(List<E> CL, IncrementalEvaluator<E> evaluator, double alpha, int step, Random rng,
+			List<E> RCL) {
+
+		double minCost = Double.POSITIVE_INFINITY;
+		E bestCand = null;
+
+		if (CL.size() > sampleSize) {
+			/*
+			 * Draw distinct positions by Floyd's algorithm, marking them with
+			 * the current draw.
+			 */
+			if (drawn.length < CL.size())
+				drawn = new int[CL.size()];
+			draw++;
+			for (int j = CL.size() - sampleSize; j < CL.size(); j++) {
+				int k = rng.nextInt(j + 1);
+				if (drawn[k] == draw)
+					k = j;
+				drawn[k] = draw;
+				E cand = CL.get(k);
+				double deltaCost = evaluator.evaluateInsertionCost(cand);
+				if (deltaCost < minCost) {
+					minCost = deltaCost;
+					bestCand = cand;
+				}
+			}
+		}
+
+		if (!(minCost < 0)) {
+			if (insertionCosts.length < CL.size())
+				insertionCosts = new double[CL.size()];
+			evaluator.evaluateInsertionCosts(CL, insertionCosts);
+			for (int k = 0; k < CL.size(); k++) {
+				if (insertionCosts[k] < minCost) {
+					minCost = insertionCosts[k];
+					bestCand = CL.get(k);
+				}
+			}
+		}
+
+		if (bestCand != null)
+			RCL.add(bestCand);
+
+	}
+
+}
@@ -0,0 +1,106 @@
+package metaheuristics.grasp;
+
+import java.util.Random;
+
+/**
+ * Epsilon-greedy choice on sliding-window averages. Each alpha keeps the
+ * costs of its last solutions, so that its mean follows the changes of the
+ * search instead of averaging over the whole run. Each alpha is tried once;
+ * then, with probability epsilon a uniformly drawn alpha is chosen, and
+ * otherwise the alpha with the largest reward of its window mean, the first
+ * one among ties.
+ *
+ * @author ccavellucci, fusberti
+ */
+public class SlidingWindowPolicy extends AlphaPolicy {
+
+	/**
+	 * the last costs of each alpha, as circular buffers.
+	 */
+	protected final double[][] windows;
+
+	/**
+	 * the sum of the costs in the window of each alpha.
+	 */
+	protected final double[] windowsSum;
+
+	/**
+	 * the probability of choosing a uniformly drawn alpha.
+	 */
+	protected final double epsilon;
+
+	/**
+	 * Constructor for the SlidingWindowPolicy class.
+	 *
+	 * @param arms
+	 *            The number of alphas.
+	 * @param window
+	 *            The number of last costs averaged for each alpha.
+	 * @param epsilon
+	 *            The probability of choosing a uniformly drawn alpha.
+	 */
+	public SlidingWindowPolicy(int arms, int window, double epsilon) {
+		super(arms);
+		if (window < 1)
+			throw new IllegalArgumentException("The window must be positive: " + window);
+		this.windows = new double[arms][window];
+		this.windowsSum = new double[arms];
+		this.epsilon = epsilon;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see metaheuristics.grasp.AlphaPolicy#getName()
+	 */
+	@Override
+	public String getName() {
+		return "window";
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see metaheuristics.grasp.AlphaPolicy#select(java.util.Random)
+	 */
+	@Override
+	public int select(Random rng) {
+
+		for (int a = 0; a < arms; a++) {
+			if (pulls[a] == 0)
+				return a;
+		}
+		if (rng.nextDouble() < epsilon)
+			return rng.nextInt(arms);
+
+		int best = 0;
+		double maxReward = Double.NEGATIVE_INFINITY;
+		for (int a = 0; a < arms; a++) {
+			double reward = reward(windowsSum[a] / Math.min(pulls[a], windows[a].length));
+			if (reward > maxReward) {
+				maxReward = reward;
+				best = a;
+			}
+		}
+
+		return best;
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see metaheuristics.grasp.AlphaPolicy#update(int, double)
+	 */
+	@Override
+	public void update(int alpha, double cost) {
+		double[] window = windows[alpha];
+		int slot = pulls[alpha] % window.length;
+		if (pulls[alpha] >= window.length)
+			windowsSum[alpha] -= window[slot];
+		window[slot] = cost;
+		windowsSum[alpha] += cost;
+		super.update(alpha, cost);
+	}
+
+}
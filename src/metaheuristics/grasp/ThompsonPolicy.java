@@ -0,0 +1,99 @@
+package metaheuristics.grasp;
+
+import java.util.Random;
+
+/**
+ * Thompson sampling on improvement indicators. A solution is a success of
+ * its alpha when its cost is at least as good as the best cost seen before
+ * it, and a failure otherwise. Each alpha holds a Beta(1 + successes, 1 +
+ * failures) posterior of its success probability, and the alpha with the
+ * largest sample of its posterior is chosen.
+ *
+ * @author ccavellucci, fusberti
+ */
+public class ThompsonPolicy extends AlphaPolicy {
+
+	/**
+	 * the number of successes of each alpha.
+	 */
+	protected final int[] successes;
+
+	/**
+	 * Constructor for the ThompsonPolicy class.
+	 *
+	 * @param arms
+	 *            The number of alphas.
+	 */
+	public ThompsonPolicy(int arms) {
+		super(arms);
+		this.successes = new int[arms];
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see metaheuristics.grasp.AlphaPolicy#getName()
+	 */
+	@Override
+	public String getName() {
+		return "thompson";
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see metaheuristics.grasp.AlphaPolicy#select(java.util.Random)
+	 */
+	@Override
+	public int select(Random rng) {
+
+		int best = 0;
+		double maxSample = Double.NEGATIVE_INFINITY;
+
+		for (int a = 0; a < arms; a++) {
+			double x = gamma(1 + successes[a], rng);
+			double y = gamma(1 + pulls[a] - successes[a], rng);
+			double sample = x / (x + y);
+			if (sample > maxSample) {
+				maxSample = sample;
+				best = a;
+			}
+		}
+
+		return best;
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see metaheuristics.grasp.AlphaPolicy#update(int, double)
+	 */
+	@Override
+	public void update(int alpha, double cost) {
+		if (cost <= bestCost)
+			successes[alpha]++;
+		super.update(alpha, cost);
+	}
+
+	/**
+	 * Draws from a Gamma(shape, 1) distribution with shape at least 1, by the
+	 * method of Marsaglia and Tsang.
+	 */
+	private static double gamma(double shape, Random rng) {
+		double d = shape - 1.0 / 3.0;
+		double c = 1.0 / Math.sqrt(9.0 * d);
+		while (true) {
+			double x, v;
+			do {
+				x = rng.nextGaussian();
+				v = 1.0 + c * x;
+			} while (v <= 0);
+			v = v * v * v;
+			double u = rng.nextDouble();
+			if (u < 1.0 - 0.0331 * x * x * x * x || Math.log(u) < 0.5 * x * x + d * (1.0 - v + Math.log(v)))
+				return d * v;
+		}
+	}
+
+}
@@ -0,0 +1,79 @@
+package metaheuristics.grasp;
+
+import java.util.Random;
+
+/**
+ * The UCB1 policy of Auer, Cesa-Bianchi and Fischer. Each alpha is tried
+ * once, and then the alpha with the largest upper confidence bound on its
+ * mean reward is chosen, the first one among ties.
+ *
+ * @author ccavellucci, fusberti
+ */
+public class UCB1Policy extends AlphaPolicy {
+
+	/**
+	 * the weight of the confidence term, which is 1 in the original UCB1.
+	 */
+	protected final double exploration;
+
+	/**
+	 * Constructor for the UCB1Policy class, with the confidence term of the
+	 * original UCB1.
+	 *
+	 * @param arms
+	 *            The number of alphas.
+	 */
+	public UCB1Policy(int arms) {
+		this(arms, 1.0);
+	}
+
+	/**
+	 * Constructor for the UCB1Policy class.
+	 *
+	 * @param arms
+	 *            The number of alphas.
+	 * @param exploration
+	 *            The weight of the confidence term.
+	 */
+	public UCB1Policy(int arms, double exploration) {
+		super(arms);
+		this.exploration = exploration;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see metaheuristics.grasp.AlphaPolicy#getName()
+	 */
+	@Override
+	public String getName() {
+		return "ucb1";
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see metaheuristics.grasp.AlphaPolicy#select(java.util.Random)
+	 */
+	@Override
+	public int select(Random rng) {
+
+		int best = 0;
+		double maxBound = Double.NEGATIVE_INFINITY;
+		double logIterations = Math.log(iteration);
+
+		for (int a = 0; a < arms; a++) {
+			if (pulls[a] == 0)
+				return a;
+			double bound = reward(costsSum[a] / pulls[a]) + exploration * Math.sqrt(2 * logIterations / pulls[a]);
+			if (bound > maxBound) {
+				maxBound = bound;
+				best = a;
+			}
+		}
+
+		return best;
+
+	}
+
+}
@@ -0,0 +1,129 @@
+package problems;
+
+/**
+ * Constraint on the number of elements of a solution, which must lie within
+ * [min, max]. Insertions are refused once the solution holds max elements and
+ * removals once it holds min elements, while exchanges keep the number of
+ * elements and are always allowed. The cap does not depend on the element
+ * inserted, so it is reported by {@link #canGrow()} rather than by
+ * {@link #canInsert(int)}, and the candidates are kept for the exchanges. The
+ * solution is not satisfied until it holds min elements, so that the
+ * constructive heuristics, which start from an empty solution, go on until
+ * then.
+ *
+ * @author ccavellucci, fusberti
+ */
+public class CardinalityConstraint implements Constraint {
+
+	/**
+	 * The smallest number of elements of a solution.
+	 */
+	protected final int min;
+
+	/**
+	 * The largest number of elements of a solution.
+	 */
+	protected final int max;
+
+	/**
+	 * The number of elements in the solution.
+	 */
+	protected int count;
+
+	/**
+	 * Constructor for the CardinalityConstraint class.
+	 *
+	 * @param min
+	 *            The smallest number of elements of a solution.
+	 * @param max
+	 *            The largest number of elements of a solution.
+	 */
+	public CardinalityConstraint(int min, int max) {
+		if (min < 0 || min > max)
+			throw new IllegalArgumentException("Invalid cardinality range [" + min + ", " + max + "]");
+		this.min = min;
+		this.max = max;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.Constraint#canInsert(int)
+	 */
+	@Override
+	public boolean canInsert(int elem) {
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.Constraint#canGrow()
+	 */
+	@Override
+	public boolean canGrow() {
+		return count < max;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.Constraint#isSatisfied()
+	 */
+	@Override
+	public boolean isSatisfied() {
+		return count >= min;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.Constraint#canRemove(int)
+	 */
+	@Override
+	public boolean canRemove(int elem) {
+		return count > min;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.Constraint#canExchange(int, int)
+	 */
+	@Override
+	public boolean canExchange(int in, int out) {
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.Constraint#onApply(int)
+	 */
+	@Override
+	public boolean onApply(int elem) {
+		count++;
+		return false;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.Constraint#onUndo(int)
+	 */
+	@Override
+	public void onUndo(int elem) {
+		count--;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * Exchanges keep the number of elements, so none is affected.
+	 */
+	@Override
+	public int related(int elem, int[] related) {
+		return 0;
+	}
+
+}
@@ -0,0 +1,166 @@
+package problems;
+
+import java.util.Arrays;
+
+/**
+ * Constraint forbidding pairs of conflicting elements from being both in a
+ * solution. The conflicts of each element are kept in increasing order in a
+ * compressed row layout, and the constraint counts, for every element, the
+ * elements of the solution which conflict with it, so that an element may be
+ * inserted while its counter is zero.
+ *
+ * @author ccavellucci, fusberti
+ */
+public class ConflictConstraint implements Constraint {
+
+	/**
+	 * The elements conflicting with each element.
+	 */
+	protected final int[] conflicts;
+
+	/**
+	 * The position of the first conflict of each element in
+	 * {@link #conflicts}, followed by the total number of conflicts.
+	 */
+	protected final int[] conflictStart;
+
+	/**
+	 * The number of elements of the solution conflicting with each element.
+	 */
+	protected final int[] conflictCounts;
+
+	/**
+	 * Constructor for the ConflictConstraint class. A pair given more than
+	 * once is kept once, and pairs of an element with itself are ignored.
+	 *
+	 * @param size
+	 *            Dimension of the domain.
+	 * @param pairs
+	 *            The conflicting pairs, the k-th one being pairs[k][0] and
+	 *            pairs[k][1].
+	 */
+	public ConflictConstraint(int size, int[][] pairs) {
+
+		int[] start = new int[size + 1];
+		for (int[] pair : pairs) {
+			if (pair[0] != pair[1]) {
+				start[pair[0] + 1]++;
+				start[pair[1] + 1]++;
+			}
+		}
+		for (int i = 0; i < size; i++) {
+			start[i + 1] += start[i];
+		}
+		int[] adjacent = new int[start[size]];
+		int[] next = Arrays.copyOf(start, size);
+		for (int[] pair : pairs) {
+			if (pair[0] != pair[1]) {
+				adjacent[next[pair[0]]++] = pair[1];
+				adjacent[next[pair[1]]++] = pair[0];
+			}
+		}
+
+		/* Sorts the conflicts of each element and drops the repeated ones. */
+		int kept = 0;
+		for (int i = 0; i < size; i++) {
+			int from = start[i];
+			Arrays.sort(adjacent, from, start[i + 1]);
+			start[i] = kept;
+			for (int p = from; p < start[i + 1]; p++) {
+				if (p == from || adjacent[p] != adjacent[p - 1])
+					adjacent[kept++] = adjacent[p];
+			}
+		}
+		start[size] = kept;
+
+		this.conflicts = Arrays.copyOf(adjacent, kept);
+		this.conflictStart = start;
+		this.conflictCounts = new int[size];
+
+	}
+
+	/**
+	 * Tells whether two elements conflict.
+	 *
+	 * @param i
+	 *            the first element.
+	 * @param j
+	 *            the second element.
+	 * @return true if the pair {i, j} is forbidden.
+	 */
+	public boolean conflict(int i, int j) {
+		return Arrays.binarySearch(conflicts, conflictStart[i], conflictStart[i + 1], j) >= 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.Constraint#canInsert(int)
+	 */
+	@Override
+	public boolean canInsert(int elem) {
+		return conflictCounts[elem] == 0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.Constraint#canRemove(int)
+	 */
+	@Override
+	public boolean canRemove(int elem) {
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.Constraint#canExchange(int, int)
+	 */
+	@Override
+	public boolean canExchange(int in, int out) {
+		int count = conflictCounts[in];
+		return count == 0 || (count == 1 && conflict(in, out));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.Constraint#onApply(int)
+	 */
+	@Override
+	public boolean onApply(int elem) {
+		boolean tightened = false;
+		for (int p = conflictStart[elem]; p < conflictStart[elem + 1]; p++) {
+			if (conflictCounts[conflicts[p]]++ == 0)
+				tightened = true;
+		}
+		return tightened;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.Constraint#onUndo(int)
+	 */
+	@Override
+	public void onUndo(int elem) {
+		for (int p = conflictStart[elem]; p < conflictStart[elem + 1]; p++) {
+			conflictCounts[conflicts[p]]--;
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The affected elements are those conflicting with elem, whose counters
+	 * changed.
+	 */
+	@Override
+	public int related(int elem, int[] related) {
+		int count = conflictStart[elem + 1] - conflictStart[elem];
+		System.arraycopy(conflicts, conflictStart[elem], related, 0, count);
+		return count;
+	}
+
+}
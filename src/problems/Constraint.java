@@ -0,0 +1,112 @@
+package problems;
+
+/**
+ * A side constraint of a problem whose elements are the indices 0, ..., n-1 of
+ * its decision variables, as in {@link IntEvaluator}. A constraint keeps its
+ * own incremental state, which follows the elements of a solution through
+ * {@link #onApply(int)} and {@link #onUndo(int)}, so that the feasibility of
+ * the neighborhood moves is answered without looking at the whole solution.
+ *
+ * Constraints are usually combined in a {@link ConstraintSet}, which calls
+ * the hooks for the elements which entered or left a solution and removes
+ * the infeasible candidates from a Candidate List.
+ *
+ * @author ccavellucci, fusberti
+ */
+public interface Constraint {
+
+	/**
+	 * Tells whether an element may be inserted into the solution.
+	 *
+	 * @param elem
+	 *            the element under consideration for insertion.
+	 * @return true if the solution remains feasible after the insertion.
+	 */
+	public abstract boolean canInsert(int elem);
+
+	/**
+	 * Tells whether the solution may gain an element at all, whichever it is.
+	 * Unlike {@link #canInsert(int)}, whose answers prune the Candidate List,
+	 * this changes with every insertion and removal, so it is checked when an
+	 * insertion move is chosen and the candidates are kept.
+	 *
+	 * @return true if some insertion may keep the solution feasible.
+	 */
+	public default boolean canGrow() {
+		return true;
+	}
+
+	/**
+	 * Tells whether the solution meets the constraint as it is. Constraints
+	 * which only restrict the moves are always satisfied, while others, such
+	 * as a minimum number of elements, require the construction to go on
+	 * until they are met.
+	 *
+	 * @return true if the solution is feasible.
+	 */
+	public default boolean isSatisfied() {
+		return true;
+	}
+
+	/**
+	 * Tells whether an element may be removed from the solution.
+	 *
+	 * @param elem
+	 *            the element under consideration for removal.
+	 * @return true if the solution remains feasible after the removal.
+	 */
+	public abstract boolean canRemove(int elem);
+
+	/**
+	 * Tells whether an element out of the solution (in) may be exchanged with
+	 * an element of the solution (out).
+	 *
+	 * @param in
+	 *            the element under consideration for insertion.
+	 * @param out
+	 *            the element under consideration for removal.
+	 * @return true if the solution remains feasible after the exchange.
+	 */
+	public abstract boolean canExchange(int in, int out);
+
+	/**
+	 * Updates the state of the constraint after an element entered the
+	 * solution.
+	 *
+	 * @param elem
+	 *            the element inserted.
+	 * @return true if some element may have ceased to be insertable, in which
+	 *         case the candidates must be checked again by
+	 *         {@link #canInsert(int)}.
+	 */
+	public abstract boolean onApply(int elem);
+
+	/**
+	 * Updates the state of the constraint after an element left the solution,
+	 * undoing its insertion.
+	 *
+	 * @param elem
+	 *            the element removed.
+	 */
+	public abstract void onUndo(int elem);
+
+	/**
+	 * Lists the elements whose exchanges may have become allowed or forbidden
+	 * when an element entered or left the solution, i.e., the candidates for
+	 * which {@link #canExchange(int, int)} may now give another answer for
+	 * some element of the solution. Constraints which do not know them return
+	 * -1, and every element must then be assumed to be affected.
+	 *
+	 * @param elem
+	 *            the element inserted or removed.
+	 * @param related
+	 *            the array which receives the affected elements, each one
+	 *            once, whose length must be at least the dimension of the
+	 *            domain.
+	 * @return the number of affected elements, or -1 if they are not known.
+	 */
+	public default int related(int elem, int[] related) {
+		return -1;
+	}
+
+}
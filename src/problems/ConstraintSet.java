@@ -0,0 +1,351 @@
+package problems;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import solutions.BinarySolution;
+import solutions.Solution;
+
+/**
+ * The conjunction of the side constraints of a problem. The set keeps the
+ * elements it has applied to its constraints and follows one solution at a
+ * time: the incremental evaluator of that solution reports each insertion
+ * and removal through {@link #applied(Solution, int)} and
+ * {@link #undone(Solution, int)}, so that the constraints are updated in time
+ * proportional to the degree of the element. A solution changed in any other
+ * way is brought up to date by {@link #update(Solution)}, which calls the
+ * hooks of the elements which entered or left it and then follows it. The
+ * Candidate List of a GRASP is kept feasible by
+ * {@link #filter(Solution, List)}, which only scans it when some constraint
+ * reports that an element may have ceased to be insertable. Limits which do
+ * not depend on the element, such as a cap on the size of the solution, are
+ * not filtered but checked by {@link #canGrow()} when an insertion is chosen.
+ *
+ * @author ccavellucci, fusberti
+ */
+public class ConstraintSet implements Constraint {
+
+	/**
+	 * The constraints of the set.
+	 */
+	protected final List<Constraint> constraints = new ArrayList<Constraint>();
+
+	/**
+	 * The elements applied to the constraints.
+	 */
+	protected final BinarySolution selected;
+
+	/**
+	 * The solution followed by the constraints, whose elements are those of
+	 * {@link #selected}, or null.
+	 */
+	protected Solution<Integer> tracked;
+
+	/**
+	 * Whether some element may have ceased to be insertable since the
+	 * candidates were last checked.
+	 */
+	protected boolean pending;
+
+	/**
+	 * The number of elements applied to or undone from the constraints.
+	 */
+	protected int changes;
+
+	/**
+	 * Scratch array which receives the elements related by each constraint.
+	 */
+	protected final int[] scratch;
+
+	/**
+	 * The call of {@link #related(int, int[])} in which each element was last
+	 * listed.
+	 */
+	protected final int[] listed;
+
+	/**
+	 * The number of calls of {@link #related(int, int[])}.
+	 */
+	protected int listing;
+
+	/**
+	 * Constructor for the ConstraintSet class, which starts without
+	 * constraints.
+	 *
+	 * @param size
+	 *            Dimension of the domain.
+	 */
+	public ConstraintSet(int size) {
+		this.selected = new BinarySolution(size);
+		this.scratch = new int[size];
+		this.listed = new int[size];
+	}
+
+	/**
+	 * Adds a constraint to the set. The constraint must not have been applied
+	 * any element yet, and the elements already applied to the set are
+	 * applied to it.
+	 *
+	 * @param constraint
+	 *            the constraint being added.
+	 */
+	public void add(Constraint constraint) {
+		for (int k = 0; k < selected.size(); k++) {
+			constraint.onApply(selected.elementAt(k));
+		}
+		constraints.add(constraint);
+		pending = true;
+		changes++;
+	}
+
+	/**
+	 * Gives the number of elements applied to or undone from the constraints
+	 * so far, which tells whether their state changed since it was last
+	 * read.
+	 *
+	 * @return the number of changes.
+	 */
+	public int getChanges() {
+		return changes;
+	}
+
+	/**
+	 * Gives the constraints of the set.
+	 *
+	 * @return the constraints, in the order they were added.
+	 */
+	public List<Constraint> getConstraints() {
+		return constraints;
+	}
+
+	/**
+	 * Reports that an element entered a solution. The constraints are only
+	 * updated if they follow that solution; otherwise the insertion is found
+	 * by the next call to {@link #update(Solution)}.
+	 *
+	 * @param sol
+	 *            the solution, with the element already inserted.
+	 * @param elem
+	 *            the element inserted.
+	 */
+	public void applied(Solution<Integer> sol, int elem) {
+		if (sol == tracked && onApply(elem))
+			pending = true;
+	}
+
+	/**
+	 * Reports that an element left a solution. The constraints are only
+	 * updated if they follow that solution; otherwise the removal is found by
+	 * the next call to {@link #update(Solution)}.
+	 *
+	 * @param sol
+	 *            the solution, with the element already removed.
+	 * @param elem
+	 *            the element removed.
+	 */
+	public void undone(Solution<Integer> sol, int elem) {
+		if (sol == tracked)
+			onUndo(elem);
+	}
+
+	/**
+	 * Brings the constraints up to date with a solution and follows it from
+	 * then on. If the constraints already follow the solution, nothing is
+	 * done; otherwise the elements which left it are undone and the ones
+	 * which entered it are applied, in the order of the solution, in time
+	 * proportional to the sizes of both solutions.
+	 *
+	 * @param sol
+	 *            the solution followed by the constraints, whose later
+	 *            changes must be reported through
+	 *            {@link #applied(Solution, int)} and
+	 *            {@link #undone(Solution, int)}.
+	 */
+	public void follow(Solution<Integer> sol) {
+
+		if (sol != tracked) {
+			BinarySolution binary = (sol instanceof BinarySolution) ? (BinarySolution) sol : null;
+
+			for (int k = selected.size() - 1; k >= 0; k--) {
+				int elem = selected.elementAt(k);
+				if (binary != null ? !binary.contains(elem) : !sol.contains(elem))
+					onUndo(elem);
+			}
+			for (int k = 0; k < sol.size(); k++) {
+				int elem = (binary != null) ? binary.elementAt(k) : sol.get(k);
+				if (!selected.contains(elem) && onApply(elem))
+					pending = true;
+			}
+			tracked = sol;
+		}
+
+	}
+
+	/**
+	 * Brings the constraints up to date with a solution and follows it from
+	 * then on, as in {@link #follow(Solution)}, and tells whether the
+	 * candidates must be checked again.
+	 *
+	 * @param sol
+	 *            the solution followed by the constraints.
+	 * @return true if some element may have ceased to be insertable since the
+	 *         last call, in which case the candidates must be checked again
+	 *         by {@link #canInsert(int)}.
+	 */
+	public boolean update(Solution<Integer> sol) {
+
+		follow(sol);
+
+		boolean changed = pending;
+		pending = false;
+		return changed;
+
+	}
+
+	/**
+	 * Brings the constraints up to date with a solution and removes from a
+	 * list of candidates, in place and keeping their order, those which can
+	 * no longer be inserted.
+	 *
+	 * @param sol
+	 *            the solution followed by the constraints.
+	 * @param candidates
+	 *            the candidates to be filtered.
+	 */
+	public void filter(Solution<Integer> sol, List<Integer> candidates) {
+
+		if (!update(sol))
+			return;
+
+		candidates.removeIf(item -> !canInsert(item));
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.Constraint#canInsert(int)
+	 */
+	@Override
+	public boolean canInsert(int elem) {
+		for (int c = 0; c < constraints.size(); c++) {
+			if (!constraints.get(c).canInsert(elem))
+				return false;
+		}
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.Constraint#canGrow()
+	 */
+	@Override
+	public boolean canGrow() {
+		for (int c = 0; c < constraints.size(); c++) {
+			if (!constraints.get(c).canGrow())
+				return false;
+		}
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.Constraint#isSatisfied()
+	 */
+	@Override
+	public boolean isSatisfied() {
+		for (int c = 0; c < constraints.size(); c++) {
+			if (!constraints.get(c).isSatisfied())
+				return false;
+		}
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.Constraint#canRemove(int)
+	 */
+	@Override
+	public boolean canRemove(int elem) {
+		for (int c = 0; c < constraints.size(); c++) {
+			if (!constraints.get(c).canRemove(elem))
+				return false;
+		}
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.Constraint#canExchange(int, int)
+	 */
+	@Override
+	public boolean canExchange(int in, int out) {
+		for (int c = 0; c < constraints.size(); c++) {
+			if (!constraints.get(c).canExchange(in, out))
+				return false;
+		}
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.Constraint#onApply(int)
+	 */
+	@Override
+	public boolean onApply(int elem) {
+		boolean tightened = false;
+		if (selected.addElement(elem)) {
+			changes++;
+			for (int c = 0; c < constraints.size(); c++) {
+				if (constraints.get(c).onApply(elem))
+					tightened = true;
+			}
+		}
+		return tightened;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.Constraint#onUndo(int)
+	 */
+	@Override
+	public void onUndo(int elem) {
+		if (selected.removeElement(elem)) {
+			changes++;
+			for (int c = 0; c < constraints.size(); c++) {
+				constraints.get(c).onUndo(elem);
+			}
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The affected elements are those listed by any of the constraints.
+	 */
+	@Override
+	public int related(int elem, int[] related) {
+		int count = 0;
+		listing++;
+		for (int c = 0; c < constraints.size(); c++) {
+			int found = constraints.get(c).related(elem, scratch);
+			if (found < 0)
+				return -1;
+			for (int k = 0; k < found; k++) {
+				int other = scratch[k];
+				if (listed[other] != listing) {
+					listed[other] = listing;
+					related[count++] = other;
+				}
+			}
+		}
+		return count;
+	}
+
+}
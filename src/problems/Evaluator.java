@@ -1,5 +1,7 @@
 package problems;
 
+import java.util.List;
+
 import solutions.Solution;
 
 /**
@@ -45,6 +47,21 @@ public interface Evaluator<E> {
 	 */
 	public abstract Double evaluateInsertionCost(E elem, Solution<E> sol);
 
+	/**
+	 * Evaluates the cost variation of inserting each one of a set of
+	 * candidates into a solution, in a single pass.
+	 * 
+	 * @param candidates
+	 *            the elements under consideration for insertion.
+	 * @param sol
+	 *            the solution for which the insertions are being evaluated.
+	 * @param costs
+	 *            the array which receives, at position k, the cost variation
+	 *            resulting from the insertion of the k-th candidate. Its
+	 *            length must be at least the number of candidates.
+	 */
+	public abstract void evaluateInsertionCosts(List<E> candidates, Solution<E> sol, double[] costs);
+
 	/**
 	 * Evaluates the cost variation of removing an element into a solution
 	 * according to an objective function.
@@ -75,4 +92,16 @@ public interface Evaluator<E> {
 	 */
 	public abstract Double evaluateExchangeCost(E elemIn, E elemOut, Solution<E> sol);
 
+	/**
+	 * Creates an incremental evaluator bound to a solution, which evaluates
+	 * and applies neighborhood moves to that solution without re-deriving the
+	 * evaluation state from its elements on every query. The cost of the
+	 * solution is evaluated when the evaluator is created.
+	 * 
+	 * @param sol
+	 *            the solution to which the evaluator is bound.
+	 * @return the incremental evaluator bound to the solution.
+	 */
+	public abstract IncrementalEvaluator<E> createIncrementalEvaluator(Solution<E> sol);
+
 }
@@ -0,0 +1,107 @@
+package problems;
+
+import java.util.List;
+
+import solutions.Solution;
+
+/**
+ * A stateful evaluator bound to a single solution. It keeps whatever
+ * information is required to evaluate the neighborhood moves of the bound
+ * solution without re-deriving it from the solution elements on every query,
+ * and it is responsible for applying those moves to the solution, keeping its
+ * cost up to date.
+ *
+ * @author ccavellucci, fusberti
+ * @param <E>
+ */
+public interface IncrementalEvaluator<E> {
+
+	/**
+	 * Gives the solution this evaluator is bound to.
+	 *
+	 * @return the bound solution.
+	 */
+	public abstract Solution<E> getSolution();
+
+	/**
+	 * Evaluates the cost variation of inserting an element into the bound
+	 * solution.
+	 *
+	 * @param elem
+	 *            the element under consideration for insertion.
+	 * @return the cost variation resulting from the element insertion into the
+	 *         solution.
+	 */
+	public abstract Double evaluateInsertionCost(E elem);
+
+	/**
+	 * Evaluates the cost variation of inserting each one of a set of
+	 * candidates into the bound solution.
+	 *
+	 * @param candidates
+	 *            the elements under consideration for insertion.
+	 * @param costs
+	 *            the array which receives, at position k, the cost variation
+	 *            resulting from the insertion of the k-th candidate. Its
+	 *            length must be at least the number of candidates.
+	 */
+	public abstract void evaluateInsertionCosts(List<E> candidates, double[] costs);
+
+	/**
+	 * Evaluates the cost variation of removing an element from the bound
+	 * solution.
+	 *
+	 * @param elem
+	 *            the element under consideration for removal.
+	 * @return the cost variation resulting from the element removal of the
+	 *         solution.
+	 */
+	public abstract Double evaluateRemovalCost(E elem);
+
+	/**
+	 * Evaluates the cost variation of exchanging candidates, one being
+	 * considered to enter the bound solution (elemIn) and the other being
+	 * considered for removal (elemOut).
+	 *
+	 * @param elemIn
+	 *            the element under consideration for insertion.
+	 * @param elemOut
+	 *            the element under consideration for removal.
+	 * @return the cost variation resulting from the elements exchange.
+	 */
+	public abstract Double evaluateExchangeCost(E elemIn, E elemOut);
+
+	/**
+	 * Evaluates every exchange of a candidate entering the bound solution with
+	 * an element leaving it, in a single sweep, and finds the one with the
+	 * smallest cost variation. Ties are broken in favor of the first candidate
+	 * and then of the first element of the solution.
+	 *
+	 * @param candidates
+	 *            the elements under consideration for insertion.
+	 * @param best
+	 *            the array which receives the position of the best candidate
+	 *            in the list at position 0, and the position of the best
+	 *            element in the solution at position 1.
+	 * @return the smallest cost variation, or positive infinity if there is
+	 *         no exchange to evaluate.
+	 */
+	public abstract double evaluateBestExchange(List<E> candidates, int[] best);
+
+	/**
+	 * Inserts an element into the bound solution, updating its cost.
+	 *
+	 * @param elem
+	 *            the element being inserted.
+	 */
+	public abstract void insert(E elem);
+
+	/**
+	 * Removes an element from the bound solution, updating its cost.
+	 *
+	 * @param elem
+	 *            the element being removed.
+	 */
+	public abstract void remove(E elem);
+
+}
@@ -0,0 +1,238 @@
+package problems;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of elements 0, ..., n-1, each one holding a key and a tie
+ * breaker, which orders them by key and then by tie breaker. The position of
+ * every element in the heap is kept, so that its key is increased or
+ * decreased in O(log n) when the cost of its move changes, and the element
+ * with the smallest key is found in O(1).
+ *
+ * @author ccavellucci, fusberti
+ */
+public class IndexedHeap {
+
+	/**
+	 * The elements, in heap order.
+	 */
+	protected final int[] heap;
+
+	/**
+	 * The position of each element in {@link #heap}, or -1 if it is not in
+	 * the heap.
+	 */
+	protected final int[] index;
+
+	/**
+	 * The key of each element.
+	 */
+	protected final double[] keys;
+
+	/**
+	 * The tie breaker of each element.
+	 */
+	protected final int[] ties;
+
+	/**
+	 * The number of elements in the heap.
+	 */
+	protected int size;
+
+	/**
+	 * Constructor for the IndexedHeap class, which starts empty.
+	 *
+	 * @param domainSize
+	 *            The number of elements which may be held.
+	 */
+	public IndexedHeap(int domainSize) {
+		heap = new int[domainSize];
+		index = new int[domainSize];
+		keys = new double[domainSize];
+		ties = new int[domainSize];
+		Arrays.fill(index, -1);
+	}
+
+	/**
+	 * Gives the number of elements in the heap.
+	 *
+	 * @return the number of elements.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Tells whether an element is in the heap.
+	 *
+	 * @param elem
+	 *            the element.
+	 * @return true if the element is in the heap.
+	 */
+	public boolean contains(int elem) {
+		return index[elem] >= 0;
+	}
+
+	/**
+	 * Gives the element with the smallest key, the one with the smallest tie
+	 * breaker among equal keys.
+	 *
+	 * @return the element at the top of the heap, or -1 if it is empty.
+	 */
+	public int peek() {
+		return (size > 0) ? heap[0] : -1;
+	}
+
+	/**
+	 * Gives the key of an element in the heap.
+	 *
+	 * @param elem
+	 *            the element.
+	 * @return the key of the element.
+	 */
+	public double keyOf(int elem) {
+		return keys[elem];
+	}
+
+	/**
+	 * Gives the tie breaker of an element in the heap.
+	 *
+	 * @param elem
+	 *            the element.
+	 * @return the tie breaker of the element.
+	 */
+	public int tieOf(int elem) {
+		return ties[elem];
+	}
+
+	/**
+	 * Inserts an element into the heap, or updates its key and tie breaker if
+	 * it is already there.
+	 *
+	 * @param elem
+	 *            the element.
+	 * @param key
+	 *            the key of the element.
+	 * @param tie
+	 *            the tie breaker of the element.
+	 */
+	public void put(int elem, double key, int tie) {
+
+		if (index[elem] < 0) {
+			heap[size] = elem;
+			index[elem] = size++;
+			keys[elem] = key;
+			ties[elem] = tie;
+			siftUp(index[elem]);
+			return;
+		}
+
+		boolean smaller = less(key, tie, keys[elem], ties[elem]);
+		keys[elem] = key;
+		ties[elem] = tie;
+		if (smaller)
+			siftUp(index[elem]);
+		else
+			siftDown(index[elem]);
+
+	}
+
+	/**
+	 * Updates the key of an element, if it is in the heap.
+	 *
+	 * @param elem
+	 *            the element.
+	 * @param key
+	 *            the new key of the element.
+	 */
+	public void update(int elem, double key) {
+		if (index[elem] >= 0)
+			put(elem, key, ties[elem]);
+	}
+
+	/**
+	 * Removes an element from the heap, if it is there.
+	 *
+	 * @param elem
+	 *            the element.
+	 */
+	public void remove(int elem) {
+
+		int p = index[elem];
+		if (p < 0)
+			return;
+
+		index[elem] = -1;
+		int last = heap[--size];
+		if (p == size)
+			return;
+		heap[p] = last;
+		index[last] = p;
+		siftUp(p);
+		siftDown(index[last]);
+
+	}
+
+	/**
+	 * Removes every element from the heap.
+	 */
+	public void clear() {
+		for (int p = 0; p < size; p++) {
+			index[heap[p]] = -1;
+		}
+		size = 0;
+	}
+
+	/**
+	 * Moves the element at a position up until its parent is smaller.
+	 */
+	private void siftUp(int p) {
+		int elem = heap[p];
+		while (p > 0) {
+			int parent = (p - 1) >>> 1;
+			int other = heap[parent];
+			if (!less(keys[elem], ties[elem], keys[other], ties[other]))
+				break;
+			heap[p] = other;
+			index[other] = p;
+			p = parent;
+		}
+		heap[p] = elem;
+		index[elem] = p;
+	}
+
+	/**
+	 * Moves the element at a position down until its children are larger.
+	 */
+	private void siftDown(int p) {
+		int elem = heap[p];
+		while (true) {
+			int child = 2 * p + 1;
+			if (child >= size)
+				break;
+			int other = heap[child];
+			if (child + 1 < size) {
+				int right = heap[child + 1];
+				if (less(keys[right], ties[right], keys[other], ties[other])) {
+					child++;
+					other = right;
+				}
+			}
+			if (!less(keys[other], ties[other], keys[elem], ties[elem]))
+				break;
+			heap[p] = other;
+			index[other] = p;
+			p = child;
+		}
+		heap[p] = elem;
+		index[elem] = p;
+	}
+
+	/**
+	 * Compares two entries by key and then by tie breaker.
+	 */
+	private static boolean less(double key, int tie, double otherKey, int otherTie) {
+		return key < otherKey || (key == otherKey && tie < otherTie);
+	}
+
+}
@@ -0,0 +1,27 @@
+package problems;
+
+import solutions.Solution;
+
+/**
+ * Specialization of the {@link Evaluator} interface for problems whose
+ * elements are the indices 0, ..., n-1 of their decision variables. Its
+ * incremental evaluators take and return primitive values, so the hot loops
+ * of the metaheuristics evaluate moves without boxing elements or costs.
+ * 
+ * @author ccavellucci, fusberti
+ */
+public interface IntEvaluator extends Evaluator<Integer> {
+
+	/**
+	 * Creates an incremental evaluator bound to a solution, as in
+	 * {@link Evaluator#createIncrementalEvaluator(Solution)}, which also
+	 * offers primitive evaluation of the neighborhood moves.
+	 * 
+	 * @param sol
+	 *            the solution to which the evaluator is bound.
+	 * @return the incremental evaluator bound to the solution.
+	 */
+	@Override
+	public abstract IntIncrementalEvaluator createIncrementalEvaluator(Solution<Integer> sol);
+
+}
@@ -0,0 +1,144 @@
+package problems;
+
+import java.util.List;
+
+/**
+ * Primitive specialization of the {@link IncrementalEvaluator} interface for
+ * int-indexed problems. Its methods take elements as int and return costs as
+ * double, and they allocate no temporary objects.
+ * 
+ * @author ccavellucci, fusberti
+ */
+public interface IntIncrementalEvaluator extends IncrementalEvaluator<Integer> {
+
+	/**
+	 * Evaluates the cost variation of inserting an element into the bound
+	 * solution.
+	 * 
+	 * @param elem
+	 *            the element under consideration for insertion.
+	 * @return the cost variation resulting from the element insertion into the
+	 *         solution.
+	 */
+	public abstract double insertionCost(int elem);
+
+	/**
+	 * Evaluates the cost variation of removing an element from the bound
+	 * solution.
+	 * 
+	 * @param elem
+	 *            the element under consideration for removal.
+	 * @return the cost variation resulting from the element removal of the
+	 *         solution.
+	 */
+	public abstract double removalCost(int elem);
+
+	/**
+	 * Evaluates the cost variation of exchanging an element entering the bound
+	 * solution (in) with an element leaving it (out).
+	 * 
+	 * @param in
+	 *            the element under consideration for insertion.
+	 * @param out
+	 *            the element under consideration for removal.
+	 * @return the cost variation resulting from the elements exchange.
+	 */
+	public abstract double exchangeCost(int in, int out);
+
+	/**
+	 * Evaluates the insertion of every candidate into the bound solution and
+	 * finds the one with the smallest cost variation, the first one in the
+	 * list in case of ties.
+	 * 
+	 * @param candidates
+	 *            the elements under consideration for insertion.
+	 * @param best
+	 *            the array which receives the best candidate at position 0,
+	 *            or -1 if there is no candidate.
+	 * @return the smallest cost variation, or positive infinity if there is
+	 *         no candidate.
+	 */
+	public abstract double evaluateBestInsertion(List<Integer> candidates, int[] best);
+
+	/**
+	 * Evaluates the insertion of every candidate allowed by a constraint, as
+	 * in {@link #evaluateBestInsertion(List, int[])}. No candidate is allowed
+	 * when the constraint does not let the solution grow.
+	 * 
+	 * @param candidates
+	 *            the elements under consideration for insertion.
+	 * @param constraint
+	 *            the constraint which must allow the insertion.
+	 * @param best
+	 *            the array which receives the best candidate at position 0,
+	 *            or -1 if no insertion is allowed.
+	 * @return the smallest cost variation, or positive infinity if no
+	 *         insertion is allowed.
+	 */
+	public abstract double evaluateBestInsertion(List<Integer> candidates, Constraint constraint, int[] best);
+
+	/**
+	 * Evaluates the removal of every element of the bound solution and finds
+	 * the one with the smallest cost variation, the first one in case of ties.
+	 * 
+	 * @param best
+	 *            the array which receives the position of the best element in
+	 *            the solution at position 0, or -1 if the solution is empty.
+	 * @return the smallest cost variation, or positive infinity if the
+	 *         solution is empty.
+	 */
+	public abstract double evaluateBestRemoval(int[] best);
+
+	/**
+	 * Evaluates the removal of every element of the bound solution allowed by
+	 * a constraint, as in {@link #evaluateBestRemoval(int[])}.
+	 * 
+	 * @param constraint
+	 *            the constraint which must allow the removal.
+	 * @param best
+	 *            the array which receives the position of the best element in
+	 *            the solution at position 0, or -1 if no removal is allowed.
+	 * @return the smallest cost variation, or positive infinity if no removal
+	 *         is allowed.
+	 */
+	public abstract double evaluateBestRemoval(Constraint constraint, int[] best);
+
+	/**
+	 * Evaluates every exchange allowed by a constraint, as in
+	 * {@link #evaluateBestExchange(List, int[])}. Implementations which reuse
+	 * the exchanges evaluated by the previous search must only do so when
+	 * they know how the state of the constraint changed since then, i.e.,
+	 * when the constraint is told of every move of the bound solution
+	 * through the evaluator, which then knows the candidates whose exchanges
+	 * it may now allow or forbid from {@link Constraint#related(int, int[])}.
+	 * 
+	 * @param candidates
+	 *            the elements under consideration for insertion.
+	 * @param constraint
+	 *            the constraint which must allow the exchange.
+	 * @param best
+	 *            the array which receives the position of the best candidate
+	 *            in the list at position 0, and the position of the best
+	 *            element in the solution at position 1.
+	 * @return the smallest cost variation, or positive infinity if no
+	 *         exchange is allowed.
+	 */
+	public abstract double evaluateBestExchange(List<Integer> candidates, Constraint constraint, int[] best);
+
+	/**
+	 * Inserts an element into the bound solution, updating its cost.
+	 * 
+	 * @param elem
+	 *            the element being inserted.
+	 */
+	public abstract void insertElement(int elem);
+
+	/**
+	 * Removes an element from the bound solution, updating its cost.
+	 * 
+	 * @param elem
+	 *            the element being removed.
+	 */
+	public abstract void removeElement(int elem);
+
+}
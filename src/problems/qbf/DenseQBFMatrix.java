@@ -0,0 +1,266 @@
+package problems.qbf;
+
+/**
+ * Dense {@link QBFMatrix} stored row-major in a single primitive array. The
+ * elements above the diagonal hold the coefficients a_{ij} read from the
+ * instance, and each one is mirrored below the diagonal, so that row i holds
+ * (a_{ij} + a_{ji}) for every j != i. This way the contribution of a variable
+ * is a contiguous scan of a single row, while the evaluation of the QBF only
+ * scans the upper part of each row.
+ *
+ * The row scans are also given as kernels with four independent partial
+ * sums, which break the dependency chain of a single accumulator so that the
+ * processor can overlap the additions. Since they add the terms in another
+ * order, they are only used for matrices whose coefficients are integral and
+ * small enough for every partial sum to be exact, as in the instances of this
+ * project, so that both paths give the same values; other matrices keep the
+ * order of the plain scalar loops.
+ *
+ * @author ccavellucci, fusberti
+ */
+public class DenseQBFMatrix implements QBFMatrix {
+
+	/**
+	 * flag that indicates whether the blocked kernels should be used instead
+	 * of the plain scalar loops, for the matrices whose sums they compute
+	 * exactly
+	 */
+	public static boolean blockedKernels = true;
+
+	/**
+	 * The largest sum of absolute values of integral coefficients which is
+	 * exactly represented by a double.
+	 */
+	private static final double EXACT_SUM = 9007199254740992.0;
+
+	/**
+	 * The largest length of an array which the virtual machines reliably
+	 * allocate.
+	 */
+	public static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
+	/**
+	 * Dimension of the matrix.
+	 */
+	protected final int size;
+
+	/**
+	 * The n x n coefficients, stored row-major.
+	 */
+	protected final double[] a;
+
+	/**
+	 * Whether the coefficients are integral and their absolute values add up
+	 * to an exact double, so that the sums over binary variables do not
+	 * depend on the order of their terms.
+	 */
+	protected final boolean integral;
+
+	/**
+	 * Constructor for the DenseQBFMatrix class.
+	 *
+	 * @param size
+	 *            Dimension of the matrix.
+	 * @param a
+	 *            The n x n row-major triangular superior matrix of
+	 *            coefficients. The array is taken over by the new matrix and
+	 *            its lower triangle is overwritten.
+	 * @throws IllegalArgumentException
+	 *             if the n x n coefficients do not fit in an array.
+	 */
+	public DenseQBFMatrix(int size, double[] a) {
+		if (!fitsOnHeap(size))
+			throw new IllegalArgumentException("Dimension " + size + " is too large for an on-heap dense matrix");
+		this.size = size;
+		this.a = a;
+		for (int i = 0; i < size; i++) {
+			for (int j = i + 1; j < size; j++) {
+				double aij = a[i * size + j] + 0.0;
+				a[i * size + j] = aij;
+				a[j * size + i] = aij;
+			}
+		}
+		double total = 0.0;
+		boolean whole = true;
+		for (int k = 0; k < size * size && whole; k++) {
+			whole = (a[k] == Math.rint(a[k]));
+			total += Math.abs(a[k]);
+		}
+		this.integral = whole && total <= EXACT_SUM;
+	}
+
+	/**
+	 * Tells whether the n x n coefficients of a matrix fit in an array, as
+	 * required by the on-heap dense storages, whose indices are computed in
+	 * int arithmetic.
+	 *
+	 * @param size
+	 *            Dimension of the matrix.
+	 * @return true if n x n is at most {@link #MAX_ARRAY_LENGTH}.
+	 */
+	public static boolean fitsOnHeap(int size) {
+		return (long) size * size <= MAX_ARRAY_LENGTH;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.QBFMatrix#size()
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.QBFMatrix#get(int, int)
+	 */
+	@Override
+	public double get(int i, int j) {
+		return (i <= j) ? a[i * size + j] : 0.0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.QBFMatrix#evaluate(double[])
+	 */
+	@Override
+	public double evaluate(double[] variables) {
+
+		if (blockedKernels && integral)
+			return evaluateBlocked(variables);
+
+		double aux, sum = 0.0;
+
+		for (int i = 0; i < size; i++) {
+			aux = 0.0;
+			int row = i * size;
+			for (int j = i; j < size; j++) {
+				aux += variables[j] * a[row + j];
+			}
+			sum += aux * variables[i];
+		}
+
+		return sum;
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.QBFMatrix#contribution(int, double[])
+	 */
+	@Override
+	public double contribution(int i, double[] variables) {
+
+		if (blockedKernels && integral)
+			return contributionBlocked(i, variables);
+
+		double sum = 0.0;
+		int row = i * size;
+
+		for (int j = 0; j < size; j++) {
+			if (i != j)
+				sum += variables[j] * a[row + j];
+		}
+		sum += a[row + i];
+
+		return sum;
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.QBFMatrix#updateContributions(int, double, double[])
+	 */
+	@Override
+	public void updateContributions(int i, double factor, double[] contributions) {
+
+		if (blockedKernels) {
+			updateContributionsBlocked(i, factor, contributions);
+			return;
+		}
+
+		int row = i * size;
+
+		for (int j = 0; j < size; j++) {
+			if (i != j)
+				contributions[j] += factor * a[row + j];
+		}
+
+	}
+
+	/**
+	 * Blocked version of {@link #evaluate(double[])}, which skips the rows of
+	 * the variables set to zero.
+	 */
+	private double evaluateBlocked(double[] variables) {
+
+		double sum = 0.0;
+
+		for (int i = 0; i < size; i++) {
+			if (variables[i] != 0)
+				sum += dot(a, i * size + i, variables, i, size - i) * variables[i];
+		}
+
+		return sum;
+
+	}
+
+	/**
+	 * Blocked version of {@link #contribution(int, double[])}.
+	 */
+	private double contributionBlocked(int i, double[] variables) {
+
+		int row = i * size;
+
+		return dot(a, row, variables, 0, i) + dot(a, row + i + 1, variables, i + 1, size - i - 1) + a[row + i];
+
+	}
+
+	/**
+	 * Blocked version of {@link #updateContributions(int, double, double[])},
+	 * which skips the diagonal without a test. Each contribution receives a
+	 * single term, so the result does not depend on the matrix.
+	 */
+	private void updateContributionsBlocked(int i, double factor, double[] contributions) {
+
+		int row = i * size;
+
+		for (int j = 0; j < i; j++) {
+			contributions[j] += factor * a[row + j];
+		}
+		for (int j = i + 1; j < size; j++) {
+			contributions[j] += factor * a[row + j];
+		}
+
+	}
+
+	/**
+	 * Computes the dot product of two array slices of the same length, using
+	 * four independent partial sums.
+	 */
+	private static double dot(double[] u, int uFrom, double[] v, int vFrom, int length) {
+
+		double s0 = 0.0, s1 = 0.0, s2 = 0.0, s3 = 0.0;
+		int k = 0;
+
+		for (; k + 3 < length; k += 4) {
+			s0 += u[uFrom + k] * v[vFrom + k];
+			s1 += u[uFrom + k + 1] * v[vFrom + k + 1];
+			s2 += u[uFrom + k + 2] * v[vFrom + k + 2];
+			s3 += u[uFrom + k + 3] * v[vFrom + k + 3];
+		}
+		for (; k < length; k++) {
+			s0 += u[uFrom + k] * v[vFrom + k];
+		}
+
+		return (s0 + s1) + (s2 + s3);
+
+	}
+
+}
@@ -0,0 +1,278 @@
+package problems.qbf;
+
+/**
+ * Dense {@link QBFMatrix} for instances whose coefficients are all integral.
+ * The layout is the same as in {@link DenseQBFMatrix}, but the coefficients
+ * are stored in the narrowest integer type which holds all of them (byte,
+ * short or int) and the row scans are accumulated in a long. The evaluations
+ * are therefore exact, and the matrix takes from 2 to 8 times less memory
+ * than its double counterpart.
+ *
+ * @author ccavellucci, fusberti
+ */
+public class IntegerQBFMatrix implements QBFMatrix {
+
+	/**
+	 * Dimension of the matrix.
+	 */
+	protected final int size;
+
+	/**
+	 * The number of bytes used by each coefficient, which is 1, 2 or 4. Only
+	 * the array of the corresponding type is allocated.
+	 */
+	protected final int width;
+
+	/**
+	 * The n x n coefficients stored row-major, when the width is 1.
+	 */
+	protected final byte[] bytes;
+
+	/**
+	 * The n x n coefficients stored row-major, when the width is 2.
+	 */
+	protected final short[] shorts;
+
+	/**
+	 * The n x n coefficients stored row-major, when the width is 4.
+	 */
+	protected final int[] ints;
+
+	/**
+	 * Constructor for the IntegerQBFMatrix class, which stores the nonzero
+	 * coefficients of a triangular superior matrix given in coordinate form.
+	 *
+	 * @param size
+	 *            Dimension of the matrix.
+	 * @param nonzeros
+	 *            Number of coordinates given.
+	 * @param rows
+	 *            The row of each coordinate, which is at most its column.
+	 * @param cols
+	 *            The column of each coordinate.
+	 * @param vals
+	 *            The coefficient of each coordinate, which must be integral.
+	 * @throws IllegalArgumentException
+	 *             if the coefficients are not integral or the n x n of them
+	 *             do not fit in an array.
+	 */
+	public IntegerQBFMatrix(int size, int nonzeros, int[] rows, int[] cols, double[] vals) {
+		if (!DenseQBFMatrix.fitsOnHeap(size))
+			throw new IllegalArgumentException("Dimension " + size + " is too large for an on-heap dense matrix");
+		this.size = size;
+		this.width = widthOf(nonzeros, vals);
+		if (width == 0)
+			throw new IllegalArgumentException("The coefficients can not be stored as integers");
+		this.bytes = (width == 1) ? new byte[size * size] : null;
+		this.shorts = (width == 2) ? new short[size * size] : null;
+		this.ints = (width == 4) ? new int[size * size] : null;
+
+		for (int k = 0; k < nonzeros; k++) {
+			set(rows[k] * size + cols[k], (int) vals[k]);
+			set(cols[k] * size + rows[k], (int) vals[k]);
+		}
+	}
+
+	/**
+	 * Determines the number of bytes required to store a set of integral
+	 * coefficients.
+	 *
+	 * @param nonzeros
+	 *            Number of coefficients given.
+	 * @param vals
+	 *            The coefficients.
+	 * @return 1, 2 or 4, or 0 if the coefficients can not be stored as
+	 *         integers.
+	 */
+	public static int widthOf(int nonzeros, double[] vals) {
+		int width = 1;
+		for (int k = 0; k < nonzeros; k++) {
+			int w = widthOf(vals[k]);
+			if (w == 0)
+				return 0;
+			width = Math.max(width, w);
+		}
+		return width;
+	}
+
+	/**
+	 * Determines the number of bytes required to store an integral
+	 * coefficient.
+	 *
+	 * @param v
+	 *            The coefficient.
+	 * @return 1, 2 or 4, or 0 if the coefficient can not be stored as an
+	 *         integer.
+	 */
+	public static int widthOf(double v) {
+		if (v != Math.rint(v) || v < Integer.MIN_VALUE || v > Integer.MAX_VALUE)
+			return 0;
+		if (v < Short.MIN_VALUE || v > Short.MAX_VALUE)
+			return 4;
+		if (v < Byte.MIN_VALUE || v > Byte.MAX_VALUE)
+			return 2;
+		return 1;
+	}
+
+	/**
+	 * Gives the number of bytes used by each coefficient.
+	 *
+	 * @return 1, 2 or 4.
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.QBFMatrix#size()
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.QBFMatrix#get(int, int)
+	 */
+	@Override
+	public double get(int i, int j) {
+		return (i <= j) ? coefficient(i * size + j) : 0.0;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.QBFMatrix#evaluate(double[])
+	 */
+	@Override
+	public double evaluate(double[] variables) {
+
+		long sum = 0;
+
+		for (int i = 0; i < size; i++) {
+			if (variables[i] != 0)
+				sum += dot(i * size + i, variables, i, size - i);
+		}
+
+		return sum;
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.QBFMatrix#contribution(int, double[])
+	 */
+	@Override
+	public double contribution(int i, double[] variables) {
+
+		int row = i * size;
+
+		return dot(row, variables, 0, i) + dot(row + i + 1, variables, i + 1, size - i - 1) + coefficient(row + i);
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.QBFMatrix#updateContributions(int, double, double[])
+	 */
+	@Override
+	public void updateContributions(int i, double factor, double[] contributions) {
+
+		int row = i * size;
+
+		axpy(factor, row, contributions, 0, i);
+		axpy(factor, row + i + 1, contributions, i + 1, size - i - 1);
+
+	}
+
+	/**
+	 * Gives the coefficient stored at a position of the row-major array.
+	 */
+	private int coefficient(int index) {
+		switch (width) {
+		case 1:
+			return bytes[index];
+		case 2:
+			return shorts[index];
+		default:
+			return ints[index];
+		}
+	}
+
+	/**
+	 * Stores a coefficient at a position of the row-major array.
+	 */
+	private void set(int index, int value) {
+		switch (width) {
+		case 1:
+			bytes[index] = (byte) value;
+			break;
+		case 2:
+			shorts[index] = (short) value;
+			break;
+		default:
+			ints[index] = value;
+		}
+	}
+
+	/**
+	 * Sums the coefficients of a slice of a row whose variables are set to
+	 * one.
+	 */
+	private long dot(int from, double[] variables, int vFrom, int length) {
+
+		long sum = 0;
+
+		switch (width) {
+		case 1:
+			for (int k = 0; k < length; k++) {
+				sum += bytes[from + k] * (long) variables[vFrom + k];
+			}
+			break;
+		case 2:
+			for (int k = 0; k < length; k++) {
+				sum += shorts[from + k] * (long) variables[vFrom + k];
+			}
+			break;
+		default:
+			for (int k = 0; k < length; k++) {
+				sum += ints[from + k] * (long) variables[vFrom + k];
+			}
+		}
+
+		return sum;
+
+	}
+
+	/**
+	 * Adds the coefficients of a slice of a row, multiplied by a factor, to a
+	 * slice of a vector.
+	 */
+	private void axpy(double factor, int from, double[] target, int tFrom, int length) {
+
+		switch (width) {
+		case 1:
+			for (int k = 0; k < length; k++) {
+				target[tFrom + k] += factor * bytes[from + k];
+			}
+			break;
+		case 2:
+			for (int k = 0; k < length; k++) {
+				target[tFrom + k] += factor * shorts[from + k];
+			}
+			break;
+		default:
+			for (int k = 0; k < length; k++) {
+				target[tFrom + k] += factor * ints[from + k];
+			}
+		}
+
+	}
+
+}
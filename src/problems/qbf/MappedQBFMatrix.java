@@ -0,0 +1,378 @@
+package problems.qbf;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+
+/**
+ * Off-heap {@link QBFMatrix} over a memory-mapped file. The file holds the
+ * triangular superior matrix packed row by row, i.e., a_{00}, a_{01}, ...,
+ * a_{0,n-1}, a_{11}, ..., a_{n-1,n-1}, as little-endian doubles or as
+ * little-endian signed integers of 1, 2 or 4 bytes. The operating system
+ * pages the rows in on demand, so the heap used by the matrix does not depend
+ * on the size of the instance, and several JVMs mapping the same file share
+ * its pages. Since the file is mapped in segments of at most
+ * {@link #SEGMENT_SIZE} coefficients, instances with billions of coefficients
+ * are supported.
+ *
+ * The packed triangle may also hold the upper half of a symmetric matrix B,
+ * in which case the coefficients above the diagonal are a_{ij} = 2 b_{ij}.
+ *
+ * Row i is read contiguously, while the part of column i above the diagonal
+ * is read with a stride, skipping the rows of the variables set to zero.
+ *
+ * @author ccavellucci, fusberti
+ */
+public class MappedQBFMatrix implements QBFMatrix {
+
+	/**
+	 * The number of coefficients of each mapped segment.
+	 */
+	public static final int SEGMENT_SIZE = 1 << 27;
+
+	/**
+	 * Dimension of the matrix.
+	 */
+	protected final int size;
+
+	/**
+	 * The number of bytes of each coefficient: 8 for doubles, or 1, 2 or 4 for
+	 * integers. Only the segments of the corresponding type are mapped.
+	 */
+	protected final int width;
+
+	/**
+	 * The factor applied to the coefficients above the diagonal, which is 2
+	 * when the file holds a symmetric matrix and 1 otherwise.
+	 */
+	protected final double scale;
+
+	/**
+	 * The mapped segments of the file, when the width is 1.
+	 */
+	protected final ByteBuffer[] bytes;
+
+	/**
+	 * The mapped segments of the file, when the width is 2.
+	 */
+	protected final ShortBuffer[] shorts;
+
+	/**
+	 * The mapped segments of the file, when the width is 4.
+	 */
+	protected final IntBuffer[] ints;
+
+	/**
+	 * The mapped segments of the file, when the width is 8.
+	 */
+	protected final DoubleBuffer[] doubles;
+
+	/**
+	 * Maps a file holding the packed triangular superior matrix as doubles.
+	 *
+	 * @param file
+	 *            The file to be mapped.
+	 * @param offset
+	 *            The position of the first coefficient in the file.
+	 * @param size
+	 *            Dimension of the matrix.
+	 * @param writable
+	 *            Whether the coefficients may be changed through
+	 *            {@link #set(int, int, double)}.
+	 * @throws IOException
+	 *             Necessary for I/O operations.
+	 */
+	public MappedQBFMatrix(File file, long offset, int size, boolean writable) throws IOException {
+		this(file, offset, size, 8, false, writable);
+	}
+
+	/**
+	 * Maps a file holding a packed matrix.
+	 *
+	 * @param file
+	 *            The file to be mapped.
+	 * @param offset
+	 *            The position of the first coefficient in the file.
+	 * @param size
+	 *            Dimension of the matrix.
+	 * @param width
+	 *            The number of bytes of each coefficient: 8 for doubles, or 1,
+	 *            2 or 4 for integers.
+	 * @param symmetric
+	 *            Whether the file holds the upper half of a symmetric matrix,
+	 *            rather than a triangular superior matrix.
+	 * @param writable
+	 *            Whether the coefficients may be changed through
+	 *            {@link #set(int, int, double)}.
+	 * @throws IOException
+	 *             Necessary for I/O operations.
+	 */
+	public MappedQBFMatrix(File file, long offset, int size, int width, boolean symmetric, boolean writable) throws IOException {
+		if (width != 1 && width != 2 && width != 4 && width != 8)
+			throw new IllegalArgumentException("Invalid coefficient width " + width);
+		this.size = size;
+		this.width = width;
+		this.scale = symmetric ? 2.0 : 1.0;
+		long length = packedLength(size);
+		int count = (int) ((length + SEGMENT_SIZE - 1) / SEGMENT_SIZE);
+		this.bytes = (width == 1) ? new ByteBuffer[count] : null;
+		this.shorts = (width == 2) ? new ShortBuffer[count] : null;
+		this.ints = (width == 4) ? new IntBuffer[count] : null;
+		this.doubles = (width == 8) ? new DoubleBuffer[count] : null;
+
+		try (RandomAccessFile raf = new RandomAccessFile(file, writable ? "rw" : "r")) {
+			FileChannel channel = raf.getChannel();
+			if (channel.size() < offset + length * width)
+				throw new IOException("File " + file + " is too short for a matrix of dimension " + size);
+			for (int s = 0; s < count; s++) {
+				long coefficients = Math.min(SEGMENT_SIZE, length - (long) s * SEGMENT_SIZE);
+				ByteBuffer segment = channel.map(writable ? MapMode.READ_WRITE : MapMode.READ_ONLY, offset + (long) s * SEGMENT_SIZE * width, coefficients * width)
+						.order(ByteOrder.LITTLE_ENDIAN);
+				switch (width) {
+				case 1:
+					bytes[s] = segment;
+					break;
+				case 2:
+					shorts[s] = segment.asShortBuffer();
+					break;
+				case 4:
+					ints[s] = segment.asIntBuffer();
+					break;
+				default:
+					doubles[s] = segment.asDoubleBuffer();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Creates a file for a matrix of zeros and maps it for writing.
+	 *
+	 * @param file
+	 *            The file to be created, which is overwritten if it exists.
+	 * @param size
+	 *            Dimension of the matrix.
+	 * @return the mapped matrix.
+	 * @throws IOException
+	 *             Necessary for I/O operations.
+	 */
+	public static MappedQBFMatrix create(File file, int size) throws IOException {
+		return create(file, 0, size, 8);
+	}
+
+	/**
+	 * Creates a file for a matrix of zeros, preceded by a given number of
+	 * bytes, and maps the matrix for writing.
+	 *
+	 * @param file
+	 *            The file to be created, which is overwritten if it exists.
+	 * @param offset
+	 *            The number of bytes preceding the matrix in the file.
+	 * @param size
+	 *            Dimension of the matrix.
+	 * @param width
+	 *            The number of bytes of each coefficient: 8 for doubles, or 1,
+	 *            2 or 4 for integers.
+	 * @return the mapped matrix.
+	 * @throws IOException
+	 *             Necessary for I/O operations.
+	 */
+	public static MappedQBFMatrix create(File file, long offset, int size, int width) throws IOException {
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(0);
+			raf.setLength(offset + packedLength(size) * width);
+		}
+		return new MappedQBFMatrix(file, offset, size, width, false, true);
+	}
+
+	/**
+	 * Gives the number of coefficients of a packed triangular superior matrix.
+	 *
+	 * @param size
+	 *            Dimension of the matrix.
+	 * @return n(n+1)/2.
+	 */
+	public static long packedLength(int size) {
+		return (long) size * (size + 1) / 2;
+	}
+
+	/**
+	 * Gives the number of bytes of each coefficient.
+	 *
+	 * @return 1, 2 or 4 for integers, or 8 for doubles.
+	 */
+	public int getWidth() {
+		return width;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.QBFMatrix#size()
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.QBFMatrix#get(int, int)
+	 */
+	@Override
+	public double get(int i, int j) {
+		if (i > j)
+			return 0.0;
+		return (i == j) ? at(index(i, j)) : upper(index(i, j));
+	}
+
+	/**
+	 * Sets the coefficient a_{ij} of the triangular superior matrix, which
+	 * requires the matrix to be writable and, for integer widths, the stored
+	 * value to be an integer which fits in the width. The value stored above
+	 * the diagonal of a symmetric matrix is half the coefficient, so odd
+	 * coefficients cannot be stored there in integers.
+	 *
+	 * @param i
+	 *            row of the coefficient.
+	 * @param j
+	 *            column of the coefficient, which must not be smaller than i.
+	 * @param value
+	 *            the coefficient a_{ij}.
+	 * @throws IllegalArgumentException
+	 *             if the coefficient is not in the triangular superior matrix
+	 *             or cannot be stored exactly.
+	 */
+	public void set(int i, int j, double value) {
+		if (i > j || j >= size)
+			throw new IllegalArgumentException("Coefficient (" + i + ", " + j + ") is not in the triangular superior matrix of dimension " + size);
+		long k = index(i, j);
+		int s = (int) (k / SEGMENT_SIZE), p = (int) (k % SEGMENT_SIZE);
+		double stored = (i != j) ? value / scale : value;
+		long limit = 1L << (8 * width - 1);
+		if (width != 8 && (stored != Math.rint(stored) || stored < -limit || stored >= limit))
+			throw new IllegalArgumentException("Coefficient " + value + " of (" + i + ", " + j + ") cannot be stored exactly in " + width + "-byte integers" + (scale != 1.0 ? " of a symmetric matrix" : ""));
+		switch (width) {
+		case 1:
+			bytes[s].put(p, (byte) stored);
+			break;
+		case 2:
+			shorts[s].put(p, (short) stored);
+			break;
+		case 4:
+			ints[s].put(p, (int) stored);
+			break;
+		default:
+			doubles[s].put(p, stored);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.QBFMatrix#evaluate(double[])
+	 */
+	@Override
+	public double evaluate(double[] variables) {
+
+		double aux, sum = 0.0;
+
+		for (int i = 0; i < size; i++) {
+			if (variables[i] == 0)
+				continue;
+			long row = index(i, i) - i;
+			aux = variables[i] * at(row + i);
+			for (int j = i + 1; j < size; j++) {
+				aux += variables[j] * upper(row + j);
+			}
+			sum += aux * variables[i];
+		}
+
+		return sum;
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.QBFMatrix#contribution(int, double[])
+	 */
+	@Override
+	public double contribution(int i, double[] variables) {
+
+		double sum = 0.0;
+		long row = index(i, i) - i;
+
+		for (int j = 0; j < i; j++) {
+			if (variables[j] != 0)
+				sum += variables[j] * upper(index(j, i));
+		}
+		for (int j = i + 1; j < size; j++) {
+			sum += variables[j] * upper(row + j);
+		}
+		sum += at(row + i);
+
+		return sum;
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.QBFMatrix#updateContributions(int, double, double[])
+	 */
+	@Override
+	public void updateContributions(int i, double factor, double[] contributions) {
+
+		long row = index(i, i) - i;
+
+		for (int j = 0; j < i; j++) {
+			contributions[j] += factor * upper(index(j, i));
+		}
+		for (int j = i + 1; j < size; j++) {
+			contributions[j] += factor * upper(row + j);
+		}
+
+	}
+
+	/**
+	 * Gives the position of a_{ij} in the packed matrix, for i <= j.
+	 */
+	private long index(int i, int j) {
+		return (long) i * size - (long) i * (i - 1) / 2 + (j - i);
+	}
+
+	/**
+	 * Gives the coefficient stored at a position of the packed matrix.
+	 */
+	private double at(long k) {
+		int s = (int) (k / SEGMENT_SIZE), p = (int) (k % SEGMENT_SIZE);
+		switch (width) {
+		case 1:
+			return bytes[s].get(p);
+		case 2:
+			return shorts[s].get(p);
+		case 4:
+			return ints[s].get(p);
+		default:
+			return doubles[s].get(p);
+		}
+	}
+
+	/**
+	 * Gives the coefficient a_{ij}, for i < j, stored at a position of the
+	 * packed matrix.
+	 */
+	private double upper(long k) {
+		return scale * at(k);
+	}
+
+}
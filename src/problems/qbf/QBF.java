@@ -1,12 +1,10 @@
 package problems.qbf;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
-import java.io.Reader;
-import java.io.StreamTokenizer;
 import java.util.Arrays;
-import problems.Evaluator;
+import java.util.List;
+import problems.IntEvaluator;
+import problems.IntIncrementalEvaluator;
 import solutions.Solution;
 
 /**
@@ -23,7 +21,7 @@ import solutions.Solution;
  * @author ccavellucci, fusberti
  *
  */
-public class QBF implements Evaluator<Integer> {
+public class QBF implements IntEvaluator {
 
 	/**
 	 * Dimension of the domain.
@@ -33,17 +31,29 @@ public class QBF implements Evaluator<Integer> {
 	/**
 	 * The array of numbers representing the domain.
 	 */
-	public final Double[] variables;
+	public final double[] variables;
+
+	/**
+	 * The contributions of all variables, computed by
+	 * {@link #evaluateInsertionsQBF(List, double[])}.
+	 */
+	protected final double[] contributions;
+
+	/**
+	 * The instance being evaluated, which may be shared with other evaluators.
+	 */
+	public final QBFInstance instance;
 
 	/**
 	 * The matrix A of coefficients for the QBF f(x) = x'.A.x
 	 */
-	public Double[][] A;
+	public QBFMatrix A;
 
 	/**
 	 * The constructor for QuadracticBinaryFunction class. The filename of the
-	 * input for setting matrix of coefficients A of the QBF. The dimension of
-	 * the array of variables x is returned from the {@link #readInput} method.
+	 * input for setting matrix of coefficients A of the QBF. The instance is
+	 * obtained from {@link QBFInstanceCache}, so it is read only once however
+	 * many evaluators are created for it.
 	 * 
 	 * @param filename
 	 *            Name of the file containing the input for setting the QBF.
@@ -51,8 +61,22 @@ public class QBF implements Evaluator<Integer> {
 	 *             Necessary for I/O operations.
 	 */
 	public QBF(String filename) throws IOException {
-		size = readInput(filename);
+		this(QBFInstanceCache.get(filename));
+	}
+
+	/**
+	 * Constructor for an evaluator of an instance already read, which only
+	 * allocates the arrays of variables and contributions.
+	 * 
+	 * @param instance
+	 *            The instance to be evaluated.
+	 */
+	public QBF(QBFInstance instance) {
+		this.instance = instance;
+		A = instance.A;
+		size = instance.size();
 		variables = allocateVariables();
+		contributions = allocateVariables();
 	}
 
 	/**
@@ -108,19 +132,7 @@ public class QBF implements Evaluator<Integer> {
 	 */
 	public Double evaluateQBF() {
 
-		Double aux = (double) 0, sum = (double) 0;
-		Double vecAux[] = new Double[size];
-
-		for (int i = 0; i < size; i++) {
-			for (int j = 0; j < size; j++) {
-				aux += variables[j] * A[i][j];
-			}
-			vecAux[i] = aux;
-			sum += aux * variables[i];
-			aux = (double) 0;
-		}
-
-		return sum;
+		return A.evaluate(variables);
 
 	}
 
@@ -155,6 +167,48 @@ public class QBF implements Evaluator<Integer> {
 		return evaluateContributionQBF(i);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see problems.Evaluator#evaluateInsertionCosts(java.util.List,
+	 * solutions.Solution, double[])
+	 */
+	@Override
+	public void evaluateInsertionCosts(List<Integer> candidates, Solution<Integer> sol, double[] costs) {
+
+		setVariables(sol);
+		evaluateInsertionsQBF(candidates, costs);
+
+	}
+
+	/**
+	 * Determines the contribution to the QBF objective function from the
+	 * insertion of each one of a set of candidates. The contributions of all
+	 * variables are obtained in a single matrix-vector pass, which adds up the
+	 * rows of the variables set to one.
+	 * 
+	 * @param candidates
+	 *            Indices of the elements being inserted into the solution.
+	 * @param costs
+	 *            Receives, at position k, the variation of the objective
+	 *            function resulting from the insertion of the k-th candidate.
+	 */
+	public void evaluateInsertionsQBF(List<Integer> candidates, double[] costs) {
+
+		for (int i = 0; i < size; i++) {
+			contributions[i] = A.get(i, i);
+		}
+		for (int i = 0; i < size; i++) {
+			if (variables[i] == 1)
+				A.updateContributions(i, 1.0, contributions);
+		}
+		for (int k = 0; k < candidates.size(); k++) {
+			int i = candidates.get(k);
+			costs[k] = (variables[i] == 1) ? 0.0 : contributions[i];
+		}
+
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -227,11 +281,23 @@ public class QBF implements Evaluator<Integer> {
 
 		sum += evaluateContributionQBF(in);
 		sum -= evaluateContributionQBF(out);
-		sum -= (A[in][out] + A[out][in]);
+		sum -= (A.get(in, out) + A.get(out, in));
 
 		return sum;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see problems.Evaluator#createIncrementalEvaluator(solutions.Solution)
+	 */
+	@Override
+	public IntIncrementalEvaluator createIncrementalEvaluator(Solution<Integer> sol) {
+
+		return new QBFIncrementalEvaluator(A, 1.0, sol);
+
+	}
+
 	/**
 	 * Determines the contribution to the QBF objective function from the
 	 * insertion of an element. This method is faster than evaluating the whole
@@ -248,49 +314,7 @@ public class QBF implements Evaluator<Integer> {
 	 */
 	private Double evaluateContributionQBF(int i) {
 
-		Double sum = 0.0;
-
-		for (int j = 0; j < size; j++) {
-			if (i != j)
-				sum += variables[j] * (A[i][j] + A[j][i]);
-		}
-		sum += A[i][i];
-
-		return sum;
-	}
-
-	/**
-	 * Responsible for setting the QBF function parameters by reading the
-	 * necessary input from an external file. this method reads the domain's
-	 * dimension and matrix {@link #A}.
-	 * 
-	 * @param filename
-	 *            Name of the file containing the input for setting the black
-	 *            box function.
-	 * @return The dimension of the domain.
-	 * @throws IOException
-	 *             Necessary for I/O operations.
-	 */
-	protected Integer readInput(String filename) throws IOException {
-
-		Reader fileInst = new BufferedReader(new FileReader(filename));
-		StreamTokenizer stok = new StreamTokenizer(fileInst);
-
-		stok.nextToken();
-		Integer _size = (int) stok.nval;
-		A = new Double[_size][_size];
-
-		for (int i = 0; i < _size; i++) {
-			for (int j = i; j < _size; j++) {
-				stok.nextToken();
-				A[i][j] = stok.nval;
-				//A[j][i] = A[i][j];
-				if (j>i)
-					A[j][i] = 0.0;
-			}
-		}
-
-		return _size;
+		return A.contribution(i, variables);
 
 	}
 
@@ -300,8 +324,8 @@ public class QBF implements Evaluator<Integer> {
 	 * 
 	 * @return a pointer to the array of domain variables.
 	 */
-	protected Double[] allocateVariables() {
-		Double[] _variables = new Double[size];
+	protected double[] allocateVariables() {
+		double[] _variables = new double[size];
 		return _variables;
 	}
 
@@ -319,7 +343,7 @@ public class QBF implements Evaluator<Integer> {
 
 		for (int i = 0; i < size; i++) {
 			for (int j = i; j < size; j++) {
-				System.out.print(A[i][j] + " ");
+				System.out.print(A.get(i, j) + " ");
 			}
 			System.out.println();
 		}
@@ -0,0 +1,265 @@
+package problems.qbf;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+/**
+ * Binary format of the QBF instances, which is memory-mapped straight into a
+ * {@link MappedQBFMatrix} instead of being parsed. A file holds a header of
+ * {@link #HEADER_SIZE} bytes followed by the packed upper triangle of the
+ * matrix, as described in {@link MappedQBFMatrix}. All values are
+ * little-endian, and the header is laid out as follows:
+ *
+ * <pre>
+ * offset  0: the magic number "QBFB"
+ * offset  4: int, the dimension n
+ * offset  8: int, the width of the coefficients (1, 2, 4 for integers, 8 for doubles)
+ * offset 12: int, the flags ({@link #FLAG_SYMMETRIC})
+ * offset 16: long, the CRC-32 of the packed triangle
+ * offset 24: reserved
+ * </pre>
+ *
+ * Text instances are converted by {@link #convert(String, String)}, which is
+ * also available from the command line through {@link #main(String[])}, and
+ * binary instances are recognized by {@link QBFInstanceReader} from their
+ * magic number.
+ *
+ * @author ccavellucci, fusberti
+ */
+public class QBFBinaryFormat {
+
+	/**
+	 * The number of bytes of the header.
+	 */
+	public static final int HEADER_SIZE = 32;
+
+	/**
+	 * Flag of the files holding the upper half of a symmetric matrix B, whose
+	 * coefficients above the diagonal are a_{ij} = 2 b_{ij}. Files without it
+	 * hold a triangular superior matrix.
+	 */
+	public static final int FLAG_SYMMETRIC = 1;
+
+	/**
+	 * flag that indicates whether the checksum of a binary instance should be
+	 * verified when it is read, which requires reading the whole file
+	 */
+	public static boolean verifyChecksum = false;
+
+	/**
+	 * The magic number which starts a binary instance.
+	 */
+	private static final byte[] MAGIC = { 'Q', 'B', 'F', 'B' };
+
+	/**
+	 * The number of bytes processed at once when writing or checking a file.
+	 */
+	private static final int BLOCK_SIZE = 1 << 20;
+
+	/**
+	 * Tells whether a file is a binary instance.
+	 *
+	 * @param filename
+	 *            Name of the file.
+	 * @return true if the file starts with the magic number.
+	 * @throws IOException
+	 *             Necessary for I/O operations.
+	 */
+	public static boolean isBinary(String filename) throws IOException {
+
+		try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+			ByteBuffer magic = ByteBuffer.allocate(MAGIC.length);
+			while (magic.hasRemaining() && channel.read(magic) >= 0)
+				;
+			return !magic.hasRemaining() && ByteBuffer.wrap(MAGIC).equals(magic.flip());
+		}
+
+	}
+
+	/**
+	 * Reads a binary instance. Instances of dimension
+	 * {@link QBFMatrixBuilder#offHeapSize} or more, or too large for the
+	 * on-heap dense storages, are kept as the mapped file, while the smaller
+	 * ones are copied into the storage chosen by {@link QBFMatrixBuilder}.
+	 *
+	 * @param filename
+	 *            Name of the file containing the instance.
+	 * @return the matrix of coefficients of the instance.
+	 * @throws IOException
+	 *             Necessary for I/O operations, and thrown as well if the
+	 *             file is not a valid binary instance.
+	 */
+	public static QBFMatrix read(String filename) throws IOException {
+
+		File file = new File(filename);
+		int size, width, flags;
+		long checksum;
+
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			while (header.hasRemaining() && channel.read(header) >= 0)
+				;
+			header.flip();
+			if (header.limit() < HEADER_SIZE || !ByteBuffer.wrap(MAGIC).equals(header.duplicate().limit(MAGIC.length)))
+				throw new IOException("File " + filename + " is not a binary QBF instance");
+			size = header.getInt(4);
+			width = header.getInt(8);
+			flags = header.getInt(12);
+			checksum = header.getLong(16);
+			if (size < 0 || (width != 1 && width != 2 && width != 4 && width != 8) || (flags & ~FLAG_SYMMETRIC) != 0)
+				throw new IOException("Binary QBF instance " + filename + " has an invalid header");
+			if (channel.size() != HEADER_SIZE + MappedQBFMatrix.packedLength(size) * width)
+				throw new IOException("Binary QBF instance " + filename + " does not match the length given by its header");
+			if (verifyChecksum && checksum(channel) != checksum)
+				throw new IOException("Binary QBF instance " + filename + " is corrupted");
+		}
+
+		MappedQBFMatrix mapped = new MappedQBFMatrix(file, HEADER_SIZE, size, width, (flags & FLAG_SYMMETRIC) != 0, false);
+		if (size >= QBFMatrixBuilder.offHeapSize || !DenseQBFMatrix.fitsOnHeap(size))
+			return mapped;
+
+		QBFMatrixBuilder builder = new QBFMatrixBuilder(size);
+		for (int i = 0; i < size; i++) {
+			for (int j = i; j < size; j++) {
+				builder.set(i, j, mapped.get(i, j));
+			}
+		}
+		return builder.build();
+
+	}
+
+	/**
+	 * Writes a matrix as a binary instance of a triangular superior matrix,
+	 * stored in the narrowest width which holds all its coefficients.
+	 *
+	 * @param A
+	 *            The matrix of coefficients.
+	 * @param filename
+	 *            Name of the file to be written, which is overwritten if it
+	 *            exists.
+	 * @throws IOException
+	 *             Necessary for I/O operations.
+	 */
+	public static void write(QBFMatrix A, String filename) throws IOException {
+
+		int size = A.size();
+		int width = 1;
+		for (int i = 0; i < size && width < 8; i++) {
+			for (int j = i; j < size; j++) {
+				int w = IntegerQBFMatrix.widthOf(A.get(i, j));
+				width = (w == 0) ? 8 : Math.max(width, w);
+				if (width == 8)
+					break;
+			}
+		}
+
+		try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+
+			CRC32 crc = new CRC32();
+			int skip = HEADER_SIZE;
+			ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			block.position(HEADER_SIZE);
+			for (int i = 0; i < size; i++) {
+				for (int j = i; j < size; j++) {
+					if (block.remaining() < width) {
+						flush(channel, block, crc, skip);
+						skip = 0;
+					}
+					double value = A.get(i, j);
+					switch (width) {
+					case 1:
+						block.put((byte) value);
+						break;
+					case 2:
+						block.putShort((short) value);
+						break;
+					case 4:
+						block.putInt((int) value);
+						break;
+					default:
+						block.putDouble(value);
+					}
+				}
+			}
+			flush(channel, block, crc, skip);
+
+			ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			header.put(MAGIC).putInt(size).putInt(width).putInt(0).putLong(crc.getValue());
+			header.clear();
+			while (header.hasRemaining())
+				channel.write(header, header.position());
+
+		}
+
+	}
+
+	/**
+	 * Converts a text instance into a binary instance.
+	 *
+	 * @param textFilename
+	 *            Name of the text instance.
+	 * @param binaryFilename
+	 *            Name of the binary instance to be written.
+	 * @throws IOException
+	 *             Necessary for I/O operations.
+	 */
+	public static void convert(String textFilename, String binaryFilename) throws IOException {
+		write(QBFInstanceReader.read(textFilename), binaryFilename);
+	}
+
+	/**
+	 * Writes the bytes of a block to the channel, adding all but the skipped
+	 * leading ones to the checksum, and clears the block.
+	 */
+	private static void flush(FileChannel channel, ByteBuffer block, CRC32 crc, int skip) throws IOException {
+		block.flip();
+		ByteBuffer body = block.duplicate();
+		body.position(skip);
+		crc.update(body);
+		while (block.hasRemaining())
+			channel.write(block);
+		block.clear();
+	}
+
+	/**
+	 * Computes the checksum of the packed triangle of a binary instance.
+	 */
+	private static long checksum(FileChannel channel) throws IOException {
+		CRC32 crc = new CRC32();
+		ByteBuffer block = ByteBuffer.allocate(BLOCK_SIZE);
+		long position = HEADER_SIZE;
+		int read;
+		while ((read = channel.read(block, position)) > 0) {
+			position += read;
+			block.flip();
+			crc.update(block);
+			block.clear();
+		}
+		return crc.getValue();
+	}
+
+	/**
+	 * A main method which converts a text instance into a binary instance.
+	 *
+	 * @param args
+	 *            the name of the text instance and the name of the binary
+	 *            instance to be written.
+	 */
+	public static void main(String[] args) throws IOException {
+
+		if (args.length != 2) {
+			System.err.println("Usage: QBFBinaryFormat <text instance> <binary instance>");
+			System.exit(1);
+		}
+		convert(args[0], args[1]);
+
+	}
+
+}
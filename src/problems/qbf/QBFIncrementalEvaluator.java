@@ -0,0 +1,831 @@
+package problems.qbf;
+
+import java.util.List;
+
+import problems.Constraint;
+import problems.ConstraintSet;
+import problems.IndexedHeap;
+import problems.IntIncrementalEvaluator;
+import solutions.BinarySolution;
+import solutions.CandidateList;
+import solutions.Solution;
+
+/**
+ * Incremental evaluator of a QBF bound to one solution. It keeps the vector of
+ * contributions of all variables, i.e., the diagonal of A plus (A+A')x, and
+ * the current value of the objective function. Therefore the cost variation
+ * of an insertion, removal or exchange is obtained in O(1), while applying an
+ * insertion or removal costs one pass over a row of the matrix.
+ *
+ * The best exchange of each candidate found by a search is kept, and the
+ * variables flipped since then are marked dirty, along with those
+ * interacting with them according to {@link QBFMatrix#neighbors(int, int[])}.
+ * The cost of exchanging two clean variables cannot have changed, so the next
+ * search only evaluates the rows of dirty candidates and, for the clean ones,
+ * the columns of dirty elements of the solution. The candidates whose
+ * exchanges the side constraints set by {@link #setConstraints(ConstraintSet)}
+ * may now allow or forbid are marked dirty as well, and a search under any
+ * other constraint, or after the constraints changed elsewhere, evaluates
+ * every exchange. When the nonzero pattern of the matrix is not known, or
+ * most variables are dirty, every exchange is evaluated again.
+ *
+ * When {@link #moveHeaps} is set and the nonzero pattern is known, the best
+ * insertion and the best removal are also kept in indexed heaps, ordered by
+ * cost and then by the order of the candidates in their {@link CandidateList}
+ * or of the elements in the {@link BinarySolution}, so that they are found in
+ * O(1) and each flip only updates the keys of the variables interacting with
+ * the flipped one.
+ *
+ * @author ccavellucci, fusberti
+ */
+public class QBFIncrementalEvaluator implements IntIncrementalEvaluator {
+
+	/**
+	 * flag that indicates whether the searches for the best exchange should
+	 * only evaluate the exchanges whose cost may have changed since the
+	 * previous search
+	 */
+	public static boolean dontLookBits = true;
+
+	/**
+	 * flag that indicates whether the best insertion and the best removal
+	 * should be kept in heaps, when the nonzero pattern of the matrix is known;
+	 * off by default, since keeping the heaps up to date only pays off for
+	 * the first-improving searches of the Pop cores, and slows down the
+	 * best-improving searches of the other cores
+	 */
+	public static boolean moveHeaps = false;
+
+	/**
+	 * The matrix A of coefficients for the QBF f(x) = x'.A.x
+	 */
+	protected final QBFMatrix A;
+
+	/**
+	 * The factor applied to every evaluation, which is -1 for the inverse QBF.
+	 */
+	protected final double sign;
+
+	/**
+	 * The solution this evaluator is bound to.
+	 */
+	protected final Solution<Integer> sol;
+
+	/**
+	 * The bound solution, if it is a {@link BinarySolution}, whose elements
+	 * are then read and written without boxing.
+	 */
+	protected final BinarySolution binary;
+
+	/**
+	 * The vector x of binary variables corresponding to the solution.
+	 */
+	protected final double[] variables;
+
+	/**
+	 * The contribution of each variable, as given by
+	 * {@link QBFMatrix#contribution(int, double[])}.
+	 */
+	protected final double[] contributions;
+
+	/**
+	 * Scratch array which receives the elements of the solution.
+	 */
+	protected final int[] members;
+
+	/**
+	 * The value of f(x) for the bound solution, without the sign applied.
+	 */
+	protected double value;
+
+	/**
+	 * The smallest cost of an exchange with each candidate, as of the search
+	 * given by {@link #rowSearch}.
+	 */
+	protected final double[] rowCost;
+
+	/**
+	 * The element leaving the solution in the exchange of {@link #rowCost},
+	 * or -1 if there is none.
+	 */
+	protected final int[] rowOut;
+
+	/**
+	 * The search in which the exchanges of each candidate were last
+	 * evaluated.
+	 */
+	protected final int[] rowSearch;
+
+	/**
+	 * The number of searches for the best exchange performed.
+	 */
+	protected int search;
+
+	/**
+	 * The side constraints told of every insertion and removal, or null.
+	 */
+	protected ConstraintSet constraints;
+
+	/**
+	 * The number of changes of {@link #constraints} accounted for in
+	 * {@link #dirty}, as given by {@link ConstraintSet#getChanges()}.
+	 */
+	protected int constraintChanges;
+
+	/**
+	 * The constraint given to the last search for the best exchange.
+	 */
+	protected Constraint searchConstraint;
+
+	/**
+	 * Whether each variable was flipped, or had its contribution changed,
+	 * since the last search for the best exchange.
+	 */
+	protected final boolean[] dirty;
+
+	/**
+	 * The variables marked in {@link #dirty}.
+	 */
+	protected final int[] dirtyList;
+
+	/**
+	 * The number of variables in {@link #dirtyList}.
+	 */
+	protected int dirtyCount;
+
+	/**
+	 * Whether every variable must be considered dirty.
+	 */
+	protected boolean allDirty = true;
+
+	/**
+	 * Whether the nonzero pattern of the matrix is known, as given by
+	 * {@link QBFMatrix#neighbors(int, int[])}.
+	 */
+	protected final boolean patternKnown;
+
+	/**
+	 * The candidates of {@link #candidates}, ordered by insertion cost and
+	 * then by stamp, or null if they are not kept.
+	 */
+	protected IndexedHeap insertionHeap;
+
+	/**
+	 * The Candidate List whose elements are kept in {@link #insertionHeap}.
+	 */
+	protected CandidateList candidates;
+
+	/**
+	 * The listener which keeps {@link #insertionHeap} up to date with
+	 * {@link #candidates}.
+	 */
+	protected final CandidateList.Listener candidateListener = new CandidateList.Listener() {
+
+		@Override
+		public void added(int elem, int stamp) {
+			insertionHeap.put(elem, insertionCost(elem), stamp);
+		}
+
+		@Override
+		public void removed(int elem) {
+			insertionHeap.remove(elem);
+		}
+
+	};
+
+	/**
+	 * The elements of the solution, ordered by removal cost and then by
+	 * position, or null if they are not kept.
+	 */
+	protected IndexedHeap removalHeap;
+
+	/**
+	 * Scratch array which receives the position of each element of the
+	 * solution in {@link #members}.
+	 */
+	protected final int[] positions;
+
+	/**
+	 * Scratch array which receives the positions of the dirty elements of the
+	 * solution in {@link #members}, and the neighbors of a flipped variable.
+	 */
+	protected final int[] scratch;
+
+	/**
+	 * Constructor for the QBFIncrementalEvaluator class. The cost of the
+	 * solution is evaluated and stored into it.
+	 *
+	 * @param A
+	 *            The matrix of coefficients of the QBF.
+	 * @param sign
+	 *            The factor applied to every evaluation, 1 for the QBF and -1
+	 *            for its inverse.
+	 * @param sol
+	 *            The solution to which the evaluator is bound.
+	 */
+	public QBFIncrementalEvaluator(QBFMatrix A, double sign, Solution<Integer> sol) {
+		this.A = A;
+		this.sign = sign;
+		this.sol = sol;
+		this.binary = (sol instanceof BinarySolution) ? (BinarySolution) sol : null;
+		this.variables = new double[A.size()];
+		this.contributions = new double[A.size()];
+		this.members = new int[A.size()];
+		this.rowCost = new double[A.size()];
+		this.rowOut = new int[A.size()];
+		this.rowSearch = new int[A.size()];
+		this.dirty = new boolean[A.size()];
+		this.dirtyList = new int[A.size()];
+		this.positions = new int[A.size()];
+		this.scratch = new int[A.size()];
+		this.patternKnown = A.size() > 0 && A.neighbors(0, scratch) >= 0;
+
+		for (Integer elem : sol) {
+			variables[elem] = 1.0;
+		}
+		if (sol.isEmpty()) {
+			for (int i = 0; i < contributions.length; i++) {
+				contributions[i] = A.get(i, i);
+			}
+			value = 0.0;
+		} else {
+			for (int i = 0; i < contributions.length; i++) {
+				contributions[i] = A.contribution(i, variables);
+			}
+			value = A.evaluate(variables);
+		}
+		sol.cost = sign * value;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.IncrementalEvaluator#getSolution()
+	 */
+	@Override
+	public Solution<Integer> getSolution() {
+		return sol;
+	}
+
+	/**
+	 * Sets the side constraints told of every insertion into and removal
+	 * from the bound solution, which are updated in time proportional to the
+	 * degree of the element instead of being brought up to date with the
+	 * whole solution.
+	 *
+	 * @param constraints
+	 *            the constraints, or null.
+	 */
+	public void setConstraints(ConstraintSet constraints) {
+		this.constraints = constraints;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.IntIncrementalEvaluator#insertionCost(int)
+	 */
+	@Override
+	public double insertionCost(int elem) {
+
+		if (variables[elem] == 1)
+			return sign * 0.0;
+
+		return sign * contributions[elem];
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.IncrementalEvaluator#evaluateInsertionCost(java.lang.Object)
+	 */
+	@Override
+	public Double evaluateInsertionCost(Integer elem) {
+		return insertionCost(elem);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.IncrementalEvaluator#evaluateInsertionCosts(java.util.List,
+	 * double[])
+	 */
+	@Override
+	public void evaluateInsertionCosts(List<Integer> candidates, double[] costs) {
+
+		for (int k = 0; k < candidates.size(); k++) {
+			int elem = candidates.get(k);
+			costs[k] = sign * ((variables[elem] == 1) ? 0.0 : contributions[elem]);
+		}
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.IntIncrementalEvaluator#removalCost(int)
+	 */
+	@Override
+	public double removalCost(int elem) {
+
+		if (variables[elem] == 0)
+			return sign * 0.0;
+
+		return sign * -contributions[elem];
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.IncrementalEvaluator#evaluateRemovalCost(java.lang.Object)
+	 */
+	@Override
+	public Double evaluateRemovalCost(Integer elem) {
+		return removalCost(elem);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.IntIncrementalEvaluator#evaluateBestInsertion(java.util.List,
+	 * int[])
+	 */
+	@Override
+	public double evaluateBestInsertion(List<Integer> candidates, int[] best) {
+
+		if (moveHeaps && patternKnown && candidates instanceof CandidateList) {
+			CandidateList list = (CandidateList) candidates;
+			if (this.candidates != list || list.getListener() != candidateListener)
+				track(list);
+			best[0] = insertionHeap.peek();
+			return (best[0] < 0) ? Double.POSITIVE_INFINITY : insertionHeap.keyOf(best[0]);
+		}
+
+		double minDeltaCost = Double.POSITIVE_INFINITY;
+
+		best[0] = -1;
+		for (int k = 0; k < candidates.size(); k++) {
+			int in = candidates.get(k);
+			double deltaCost = insertionCost(in);
+			if (deltaCost < minDeltaCost) {
+				minDeltaCost = deltaCost;
+				best[0] = in;
+			}
+		}
+
+		return minDeltaCost;
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.IntIncrementalEvaluator#evaluateBestInsertion(java.util.List,
+	 * problems.Constraint, int[])
+	 */
+	@Override
+	public double evaluateBestInsertion(List<Integer> candidates, Constraint constraint, int[] best) {
+
+		if (!constraint.canGrow()) {
+			best[0] = -1;
+			return Double.POSITIVE_INFINITY;
+		}
+
+		if (moveHeaps && patternKnown && candidates instanceof CandidateList) {
+			CandidateList list = (CandidateList) candidates;
+			if (this.candidates != list || list.getListener() != candidateListener)
+				track(list);
+			int in = insertionHeap.peek();
+			if (in < 0 || constraint.canInsert(in)) {
+				best[0] = in;
+				return (in < 0) ? Double.POSITIVE_INFINITY : insertionHeap.keyOf(in);
+			}
+		}
+
+		double minDeltaCost = Double.POSITIVE_INFINITY;
+
+		best[0] = -1;
+		for (int k = 0; k < candidates.size(); k++) {
+			int in = candidates.get(k);
+			double deltaCost = insertionCost(in);
+			if (deltaCost < minDeltaCost && constraint.canInsert(in)) {
+				minDeltaCost = deltaCost;
+				best[0] = in;
+			}
+		}
+
+		return minDeltaCost;
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.IntIncrementalEvaluator#evaluateBestRemoval(int[])
+	 */
+	@Override
+	public double evaluateBestRemoval(int[] best) {
+
+		if (moveHeaps && patternKnown && binary != null) {
+			int out = removalHeap().peek();
+			best[0] = (out < 0) ? -1 : removalHeap.tieOf(out);
+			return (out < 0) ? Double.POSITIVE_INFINITY : removalHeap.keyOf(out);
+		}
+
+		double minDeltaCost = Double.POSITIVE_INFINITY;
+		int count = copyMembers();
+
+		best[0] = -1;
+		for (int l = 0; l < count; l++) {
+			double deltaCost = removalCost(members[l]);
+			if (deltaCost < minDeltaCost) {
+				minDeltaCost = deltaCost;
+				best[0] = l;
+			}
+		}
+
+		return minDeltaCost;
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.IntIncrementalEvaluator#evaluateBestRemoval(problems.Constraint,
+	 * int[])
+	 */
+	@Override
+	public double evaluateBestRemoval(Constraint constraint, int[] best) {
+
+		if (moveHeaps && patternKnown && binary != null) {
+			int out = removalHeap().peek();
+			if (out < 0 || constraint.canRemove(out)) {
+				best[0] = (out < 0) ? -1 : removalHeap.tieOf(out);
+				return (out < 0) ? Double.POSITIVE_INFINITY : removalHeap.keyOf(out);
+			}
+		}
+
+		double minDeltaCost = Double.POSITIVE_INFINITY;
+		int count = copyMembers();
+
+		best[0] = -1;
+		for (int l = 0; l < count; l++) {
+			double deltaCost = removalCost(members[l]);
+			if (deltaCost < minDeltaCost && constraint.canRemove(members[l])) {
+				minDeltaCost = deltaCost;
+				best[0] = l;
+			}
+		}
+
+		return minDeltaCost;
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.IntIncrementalEvaluator#exchangeCost(int, int)
+	 */
+	@Override
+	public double exchangeCost(int in, int out) {
+
+		double sum = 0.0;
+
+		if (in == out)
+			return sign * 0.0;
+		if (variables[in] == 1)
+			return removalCost(out);
+		if (variables[out] == 0)
+			return insertionCost(in);
+
+		sum += contributions[in];
+		sum -= contributions[out];
+		sum -= (A.get(in, out) + A.get(out, in));
+
+		return sign * sum;
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.IncrementalEvaluator#evaluateExchangeCost(java.lang.Object,
+	 * java.lang.Object)
+	 */
+	@Override
+	public Double evaluateExchangeCost(Integer elemIn, Integer elemOut) {
+		return exchangeCost(elemIn, elemOut);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.IncrementalEvaluator#evaluateBestExchange(java.util.List,
+	 * int[])
+	 */
+	@Override
+	public double evaluateBestExchange(List<Integer> candidates, int[] best) {
+		return bestExchange(candidates, null, best);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.IntIncrementalEvaluator#evaluateBestExchange(java.util.List,
+	 * problems.Constraint, int[])
+	 */
+	@Override
+	public double evaluateBestExchange(List<Integer> candidates, Constraint constraint, int[] best) {
+		return bestExchange(candidates, constraint, best);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.IntIncrementalEvaluator#insertElement(int)
+	 */
+	@Override
+	public void insertElement(int elem) {
+
+		if (variables[elem] == 1)
+			return;
+
+		value += contributions[elem];
+		variables[elem] = 1.0;
+		A.updateContributions(elem, 1.0, contributions);
+		if (binary != null)
+			binary.addElement(elem);
+		else
+			sol.add(elem);
+		sol.cost = sign * value;
+		flipped(elem);
+		if (removalHeap != null)
+			removalHeap.put(elem, removalCost(elem), binary.size() - 1);
+		if (constraints != null)
+			constrained(elem, true);
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.IncrementalEvaluator#insert(java.lang.Object)
+	 */
+	@Override
+	public void insert(Integer elem) {
+		insertElement(elem);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.IntIncrementalEvaluator#removeElement(int)
+	 */
+	@Override
+	public void removeElement(int elem) {
+
+		if (variables[elem] == 0)
+			return;
+
+		int last = -1;
+		value -= contributions[elem];
+		variables[elem] = 0.0;
+		A.updateContributions(elem, -1.0, contributions);
+		if (binary != null) {
+			/* The last element of the solution takes the place of elem. */
+			last = binary.elementAt(binary.size() - 1);
+			markDirty(last);
+			binary.removeElement(elem);
+		} else {
+			sol.remove(Integer.valueOf(elem));
+			allDirty = true;
+		}
+		sol.cost = sign * value;
+		flipped(elem);
+		if (removalHeap != null) {
+			if (last != elem)
+				removalHeap.put(last, removalCost(last), removalHeap.tieOf(elem));
+			removalHeap.remove(elem);
+		}
+		if (constraints != null)
+			constrained(elem, false);
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.IncrementalEvaluator#remove(java.lang.Object)
+	 */
+	@Override
+	public void remove(Integer elem) {
+		removeElement(elem);
+	}
+
+	/**
+	 * Finds the best exchange allowed by a constraint, or by no constraint if
+	 * it is null, reusing the best exchange of each clean candidate.
+	 */
+	private double bestExchange(List<Integer> candidates, Constraint constraint, int[] best) {
+
+		double minDeltaCost = Double.POSITIVE_INFINITY;
+		int count = copyMembers();
+		boolean full = allDirty || !dontLookBits || constraint != searchConstraint
+				|| (constraint != null && (constraint != constraints || constraints.getChanges() != constraintChanges));
+		int checks = 0;
+
+		search++;
+		for (int l = 0; l < count; l++) {
+			positions[members[l]] = l;
+			if (dirty[members[l]])
+				scratch[checks++] = l;
+		}
+		if (2 * checks > count)
+			full = true;
+
+		best[0] = best[1] = -1;
+		for (int k = 0; k < candidates.size(); k++) {
+			int in = candidates.get(k);
+			int out = rowOut[in], pos = -1;
+			double rowMin = Double.POSITIVE_INFINITY;
+			if (full || dirty[in] || rowSearch[in] != search - 1 || out < 0 || variables[out] == 0 || dirty[out]
+					|| (constraint != null && !constraint.canExchange(in, out))) {
+				/* Evaluates the whole row of the candidate. */
+				for (int l = 0; l < count; l++) {
+					double deltaCost = exchangeCost(in, members[l]);
+					if (deltaCost < rowMin && (constraint == null || constraint.canExchange(in, members[l]))) {
+						rowMin = deltaCost;
+						pos = l;
+					}
+				}
+			} else {
+				/* Only the columns of the dirty elements may beat the last best. */
+				rowMin = rowCost[in];
+				pos = positions[out];
+				for (int c = 0; c < checks; c++) {
+					int l = scratch[c];
+					double deltaCost = exchangeCost(in, members[l]);
+					if ((deltaCost < rowMin || (deltaCost == rowMin && l < pos))
+							&& (constraint == null || constraint.canExchange(in, members[l]))) {
+						rowMin = deltaCost;
+						pos = l;
+					}
+				}
+			}
+			rowCost[in] = rowMin;
+			rowOut[in] = (pos >= 0) ? members[pos] : -1;
+			rowSearch[in] = search;
+			if (rowMin < minDeltaCost) {
+				minDeltaCost = rowMin;
+				best[0] = k;
+				best[1] = pos;
+			}
+		}
+
+		for (int d = 0; d < dirtyCount; d++) {
+			dirty[dirtyList[d]] = false;
+		}
+		dirtyCount = 0;
+		allDirty = false;
+		searchConstraint = constraint;
+		if (constraints != null)
+			constraintChanges = constraints.getChanges();
+
+		return minDeltaCost;
+
+	}
+
+	/**
+	 * Marks a flipped variable as dirty, along with the variables interacting
+	 * with it, and updates the costs of their moves in the heaps.
+	 */
+	private void flipped(int elem) {
+
+		if (allDirty && insertionHeap == null && removalHeap == null)
+			return;
+		int count = A.neighbors(elem, scratch);
+		if (count < 0) {
+			allDirty = true;
+			return;
+		}
+		if (!allDirty) {
+			markDirty(elem);
+			for (int k = 0; k < count; k++) {
+				markDirty(scratch[k]);
+			}
+		}
+		if (insertionHeap != null) {
+			insertionHeap.update(elem, insertionCost(elem));
+			for (int k = 0; k < count; k++) {
+				insertionHeap.update(scratch[k], insertionCost(scratch[k]));
+			}
+		}
+		if (removalHeap != null) {
+			for (int k = 0; k < count; k++) {
+				removalHeap.update(scratch[k], removalCost(scratch[k]));
+			}
+		}
+
+	}
+
+	/**
+	 * Tells the constraints of a flip and marks as dirty the candidates whose
+	 * exchanges they may now allow or forbid. A change of the constraints
+	 * made elsewhere since the last search is not accounted for, so that it
+	 * still makes the next search evaluate every exchange.
+	 */
+	private void constrained(int elem, boolean inserted) {
+
+		boolean synced = constraints.getChanges() == constraintChanges;
+		if (inserted)
+			constraints.applied(sol, elem);
+		else
+			constraints.undone(sol, elem);
+		if (!allDirty) {
+			int count = constraints.related(elem, scratch);
+			if (count < 0) {
+				allDirty = true;
+			} else {
+				for (int k = 0; k < count; k++) {
+					markDirty(scratch[k]);
+				}
+			}
+		}
+		if (synced)
+			constraintChanges = constraints.getChanges();
+
+	}
+
+	/**
+	 * Starts keeping the candidates of a Candidate List in
+	 * {@link #insertionHeap}.
+	 */
+	private void track(CandidateList list) {
+
+		if (insertionHeap == null)
+			insertionHeap = new IndexedHeap(A.size());
+		else
+			insertionHeap.clear();
+		candidates = list;
+		list.setListener(candidateListener);
+		for (int k = 0; k < list.size(); k++) {
+			int in = list.get(k);
+			insertionHeap.put(in, insertionCost(in), list.stampOf(in));
+		}
+
+	}
+
+	/**
+	 * Gives the heap of the elements of the solution, building it on the
+	 * first call.
+	 */
+	private IndexedHeap removalHeap() {
+
+		if (removalHeap == null) {
+			removalHeap = new IndexedHeap(A.size());
+			for (int l = 0; l < binary.size(); l++) {
+				int out = binary.elementAt(l);
+				removalHeap.put(out, removalCost(out), l);
+			}
+		}
+		return removalHeap;
+
+	}
+
+	/**
+	 * Marks a variable as dirty.
+	 */
+	private void markDirty(int elem) {
+		if (!dirty[elem]) {
+			dirty[elem] = true;
+			dirtyList[dirtyCount++] = elem;
+		}
+	}
+
+	/**
+	 * Copies the elements of the solution into {@link #members}, without
+	 * boxing them when the solution is a {@link BinarySolution}.
+	 *
+	 * @return the number of elements of the solution.
+	 */
+	private int copyMembers() {
+
+		int count = sol.size();
+
+		if (binary != null) {
+			for (int l = 0; l < count; l++) {
+				members[l] = binary.elementAt(l);
+			}
+		} else {
+			for (int l = 0; l < count; l++) {
+				members[l] = sol.get(l);
+			}
+		}
+
+		return count;
+
+	}
+
+}
@@ -0,0 +1,215 @@
+package problems.qbf;
+
+import java.util.Arrays;
+
+/**
+ * The immutable data of a QBF instance, i.e., its matrix of coefficients and
+ * the prohibited triples of the QBFPT, which are built on first use. An
+ * instance is meant to be shared by every evaluator of the same file, each
+ * one keeping only its own arrays of variables and contributions, and is
+ * obtained from {@link QBFInstanceCache}.
+ *
+ * @author ccavellucci, fusberti
+ */
+public class QBFInstance {
+
+	/**
+	 * The canonical path of the file the instance was read from.
+	 */
+	public final String path;
+
+	/**
+	 * The matrix A of coefficients for the QBF f(x) = x'.A.x
+	 */
+	public final QBFMatrix A;
+
+	/**
+	 * The elements of the distinct prohibited triples, three by three, built
+	 * by {@link #getTriples()}.
+	 */
+	private int[] triples;
+
+	/**
+	 * The ids of the triples containing each element, built by
+	 * {@link #getIncidence()}.
+	 */
+	private int[] incidence;
+
+	/**
+	 * The position of the first triple id of each element in
+	 * {@link #incidence}, built by {@link #getIncidenceStart()}.
+	 */
+	private int[] incidenceStart;
+
+	/**
+	 * Constructor for the QBFInstance class.
+	 *
+	 * @param path
+	 *            The canonical path of the file of the instance.
+	 * @param A
+	 *            The matrix of coefficients.
+	 */
+	public QBFInstance(String path, QBFMatrix A) {
+		this.path = path;
+		this.A = A;
+	}
+
+	/**
+	 * Gives the dimension of the instance.
+	 *
+	 * @return the number of binary variables.
+	 */
+	public int size() {
+		return A.size();
+	}
+
+	/**
+	 * Gives the prohibited triples of the QBFPT, i.e., the distinct sets
+	 * {i, g(i), h(i)}, stored three by three in a single array: the t-th
+	 * triple holds its elements in increasing order from position 3t to
+	 * position 3t + 2. The triples are kept in the order of the first i
+	 * which produces them, repeated ones being dropped. They are built on
+	 * the first call and shared afterwards, so they must not be modified.
+	 *
+	 * @return the elements of the prohibited triples.
+	 */
+	public synchronized int[] getTriples() {
+		if (triples == null)
+			buildTriples();
+		return triples;
+	}
+
+	/**
+	 * Gives the number of distinct prohibited triples.
+	 *
+	 * @return the length of {@link #getTriples()} divided by three.
+	 */
+	public int getTripleCount() {
+		return getTriples().length / 3;
+	}
+
+	/**
+	 * Gives the ids, i.e., the positions in {@link #getTriples()} divided by
+	 * three, of the triples containing each element. The ids of the triples
+	 * containing element i are stored in increasing order from position
+	 * getIncidenceStart()[i] to getIncidenceStart()[i+1] - 1. The array is
+	 * shared, so it must not be modified.
+	 *
+	 * @return the triple ids of all elements.
+	 */
+	public synchronized int[] getIncidence() {
+		if (incidence == null)
+			buildIncidence();
+		return incidence;
+	}
+
+	/**
+	 * Gives the position of the first triple id of each element in
+	 * {@link #getIncidence()}, followed by the total number of ids. The array
+	 * is shared, so it must not be modified.
+	 *
+	 * @return the n + 1 starting positions.
+	 */
+	public synchronized int[] getIncidenceStart() {
+		if (incidence == null)
+			buildIncidence();
+		return incidenceStart;
+	}
+
+	/**
+	 * Builds the prohibited triples, dropping the repeated ones through an
+	 * open addressing table of the triples already kept.
+	 */
+	private void buildTriples() {
+		int size = size();
+		int[] elems = new int[3 * size];
+		int capacity = Integer.highestOneBit(Math.max(1, 2 * size - 1)) << 1;
+		long[] keys = new long[capacity];
+		Arrays.fill(keys, -1L);
+		int count = 0;
+		for (int i = 0; i < size; i++) {
+			int a = i, b = g(i, 131, 1031, size), c = h(i, 193, 1093, size);
+			int t;
+			if (a > b) { t = a; a = b; b = t; }
+			if (b > c) { t = b; b = c; c = t; }
+			if (a > b) { t = a; a = b; b = t; }
+			long key = ((long) a * size + b) * size + c;
+			int slot = (int) (mix(key) & (capacity - 1));
+			while (keys[slot] != -1L && keys[slot] != key)
+				slot = (slot + 1) & (capacity - 1);
+			if (keys[slot] == key)
+				continue;
+			keys[slot] = key;
+			elems[3 * count] = a;
+			elems[3 * count + 1] = b;
+			elems[3 * count + 2] = c;
+			count++;
+		}
+		triples = Arrays.copyOf(elems, 3 * count);
+	}
+
+	/**
+	 * Builds the element-to-triple incidence index with a counting pass over
+	 * the triples, an element repeated in a triple being counted once.
+	 */
+	private void buildIncidence() {
+		int[] triples = getTriples();
+		int size = size();
+		int[] start = new int[size + 1];
+		for (int p = 0; p < triples.length; p++) {
+			if (p % 3 == 0 || triples[p] != triples[p - 1])
+				start[triples[p] + 1]++;
+		}
+		for (int i = 0; i < size; i++) {
+			start[i + 1] += start[i];
+		}
+		int[] ids = new int[start[size]];
+		int[] next = Arrays.copyOf(start, size);
+		for (int p = 0; p < triples.length; p++) {
+			if (p % 3 == 0 || triples[p] != triples[p - 1])
+				ids[next[triples[p]]++] = p / 3;
+		}
+		incidenceStart = start;
+		incidence = ids;
+	}
+
+	/**
+	 * Mixes the bits of a key, as in the SplitMix64 generator.
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	static int l(int u, int pi1, int pi2, int size){
+		
+		return (((pi1*u) + pi2)%(size));
+	}
+	
+	static int g(int u, int pi1, int pi2, int size){
+		pi1 = 131;
+		pi2 = 1031;
+		int lu = l(u, pi1, pi2, (size));
+		if (lu != u) {
+			return lu; 
+		}
+		return 1 + (lu%(size));
+	}
+	
+	static int h(int u, int pi1, int pi2, int size){
+		pi1 = 193;
+		pi2 = 1093;
+		int lu = l(u, pi1, pi2, (size)),
+			gu = g(u, pi1, pi2, (size));
+		if (lu != u && lu != gu) {
+			return lu ;
+		}
+		int temp = (1 + (lu%(size)));
+		if (temp != u && temp != gu) {
+			return temp;
+		}
+		return 1 + ((lu + 1)%(size));
+	}
+
+}
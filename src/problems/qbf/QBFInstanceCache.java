@@ -0,0 +1,176 @@
+package problems.qbf;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * In-process registry of the QBF instances read so far, which lets every
+ * evaluator of the same file share its {@link QBFInstance}. Instances are
+ * looked up by canonical path, an entry being reused while the length and
+ * modification time of the file are unchanged. Otherwise, an instance already
+ * read from another file is shared only if that file has the same length and
+ * the same SHA-256 digest. The contents are hashed only when such a file
+ * exists, so that a first read, e.g., of a binary instance which is only
+ * mapped, does not read the whole file. Only when both lookups fail the file
+ * is read.
+ *
+ * @author ccavellucci, fusberti
+ */
+public class QBFInstanceCache {
+
+	/**
+	 * flag that indicates whether instances should be shared; if unset, every
+	 * call to {@link #get(String)} reads the file, without hashing it
+	 */
+	public static boolean enabled = true;
+
+	/**
+	 * The instances by canonical path.
+	 */
+	private static final Map<String, Entry> byPath = new HashMap<String, Entry>();
+
+	/**
+	 * The instances by length of their files.
+	 */
+	private static final Map<Long, List<Entry>> byLength = new HashMap<Long, List<Entry>>();
+
+	/**
+	 * The number of bytes hashed at once.
+	 */
+	private static final int BLOCK_SIZE = 1 << 20;
+
+	/**
+	 * Gives the instance of a file, reading it only if neither the file nor
+	 * one with the same contents has been read before.
+	 *
+	 * @param filename
+	 *            Name of the file containing the instance.
+	 * @return the instance.
+	 * @throws IOException
+	 *             Necessary for I/O operations.
+	 */
+	public static synchronized QBFInstance get(String filename) throws IOException {
+
+		File file = new File(filename).getCanonicalFile();
+		String path = file.getPath();
+		long length = file.length(), modified = file.lastModified();
+
+		if (!enabled)
+			return new QBFInstance(path, QBFInstanceReader.read(path));
+
+		Entry entry = byPath.get(path);
+		if (entry != null && entry.length == length && entry.modified == modified)
+			return entry.instance;
+
+		List<Entry> sameLength = byLength.get(length);
+		if (sameLength == null) {
+			sameLength = new ArrayList<Entry>();
+			byLength.put(length, sameLength);
+		}
+		byte[] digest = null;
+		QBFInstance instance = null;
+		for (Entry other : sameLength) {
+			if (other.path.equals(path) || !other.hash())
+				continue;
+			if (digest == null)
+				digest = digest(file);
+			if (Arrays.equals(digest, other.digest)) {
+				instance = other.instance;
+				break;
+			}
+		}
+		if (instance == null)
+			instance = new QBFInstance(path, QBFInstanceReader.read(path));
+		Entry previous = byPath.put(path, new Entry(path, length, modified, instance, digest));
+		if (previous != null)
+			byLength.get(previous.length).remove(previous);
+		sameLength.add(byPath.get(path));
+
+		return instance;
+
+	}
+
+	/**
+	 * Discards every instance, which are kept alive only by the evaluators
+	 * still using them.
+	 */
+	public static synchronized void clear() {
+		byPath.clear();
+		byLength.clear();
+	}
+
+	/**
+	 * Computes the SHA-256 digest of the contents of a file.
+	 */
+	private static byte[] digest(File file) throws IOException {
+		MessageDigest sha;
+		try {
+			sha = MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available", e);
+		}
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer block = ByteBuffer.allocateDirect(BLOCK_SIZE);
+			while (channel.read(block) > 0) {
+				block.flip();
+				sha.update(block);
+				block.clear();
+			}
+		}
+		return sha.digest();
+	}
+
+	/**
+	 * An instance read from a path, with the length and modification time the
+	 * file had when it was read, and the digest of its contents once it is
+	 * needed.
+	 */
+	private static class Entry {
+
+		final String path;
+
+		final long length;
+
+		final long modified;
+
+		final QBFInstance instance;
+
+		byte[] digest;
+
+		Entry(String path, long length, long modified, QBFInstance instance, byte[] digest) {
+			this.path = path;
+			this.length = length;
+			this.modified = modified;
+			this.instance = instance;
+			this.digest = digest;
+		}
+
+		/**
+		 * Hashes the file of the entry, unless it was already hashed.
+		 *
+		 * @return false if the file was changed since it was read, in which
+		 *         case its digest would not be that of the instance.
+		 */
+		boolean hash() throws IOException {
+			if (digest != null)
+				return true;
+			File file = new File(path);
+			if (file.length() != length || file.lastModified() != modified)
+				return false;
+			digest = digest(file);
+			return true;
+		}
+
+	}
+
+}
@@ -0,0 +1,325 @@
+package problems.qbf;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Seeded generator of synthetic QBF instances, used to measure how the
+ * metaheuristics scale with the dimension without keeping large files in the
+ * repository. Each coefficient of the triangular superior matrix is drawn from
+ * a hash of the seed and of its position, so an instance is fully determined
+ * by its parameters, whatever the order in which its coefficients are
+ * produced.
+ *
+ * A coefficient is drawn with probability given by the density, and is zero
+ * otherwise. Drawn coefficients follow one of the {@link Distribution}s over
+ * the range [min, max].
+ *
+ * Instances are written in the text format of the instances directory, in
+ * the binary format of {@link QBFBinaryFormat}, or built straight into a
+ * {@link QBFMatrix}.
+ *
+ * @author ccavellucci, fusberti
+ */
+public class QBFInstanceGenerator {
+
+	/**
+	 * The distributions of the coefficients.
+	 */
+	public enum Distribution {
+
+		/**
+		 * Integers uniformly distributed in [min, max], as in the instances
+		 * directory.
+		 */
+		UNIFORM,
+
+		/**
+		 * Reals uniformly distributed in [min, max).
+		 */
+		UNIFORM_REAL,
+
+		/**
+		 * Integers normally distributed around the middle of [min, max], with
+		 * a standard deviation of a sixth of its length, clamped to it.
+		 */
+		NORMAL
+
+	}
+
+	/**
+	 * Dimension of the instances.
+	 */
+	protected final int size;
+
+	/**
+	 * The probability of each coefficient being drawn rather than zero.
+	 */
+	protected final double density;
+
+	/**
+	 * The smallest coefficient.
+	 */
+	protected final double min;
+
+	/**
+	 * The largest coefficient.
+	 */
+	protected final double max;
+
+	/**
+	 * The distribution of the coefficients.
+	 */
+	protected final Distribution distribution;
+
+	/**
+	 * The seed from which the coefficients are drawn.
+	 */
+	protected final long seed;
+
+	/**
+	 * Constructor for the QBFInstanceGenerator class.
+	 *
+	 * @param size
+	 *            Dimension of the instances.
+	 * @param density
+	 *            The probability of each coefficient being drawn rather than
+	 *            zero, within [0,1].
+	 * @param min
+	 *            The smallest coefficient.
+	 * @param max
+	 *            The largest coefficient.
+	 * @param distribution
+	 *            The distribution of the coefficients.
+	 * @param seed
+	 *            The seed from which the coefficients are drawn.
+	 */
+	public QBFInstanceGenerator(int size, double density, double min, double max, Distribution distribution, long seed) {
+		if (size < 0 || density < 0 || density > 1 || min > max)
+			throw new IllegalArgumentException("Invalid parameters for an instance of dimension " + size);
+		if (distribution != Distribution.UNIFORM_REAL && Math.ceil(min) > Math.floor(max))
+			throw new IllegalArgumentException("There is no integer in the range [" + min + ", " + max + "]");
+		this.size = size;
+		this.density = density;
+		this.min = min;
+		this.max = max;
+		this.distribution = distribution;
+		this.seed = seed;
+	}
+
+	/**
+	 * Gives the coefficient a_{ij} of the generated triangular superior
+	 * matrix.
+	 *
+	 * @param i
+	 *            row of the coefficient.
+	 * @param j
+	 *            column of the coefficient.
+	 * @return the coefficient a_{ij}, which is zero if i > j.
+	 */
+	public double get(int i, int j) {
+
+		if (i > j)
+			return 0.0;
+
+		long key = seed + ((long) i * size + j + 1) * 0x9E3779B97F4A7C15L;
+		if (uniform(mix(key)) >= density)
+			return 0.0;
+
+		double u = uniform(mix(key ^ 0x5DEECE66DL));
+		switch (distribution) {
+		case UNIFORM_REAL:
+			return min + u * (max - min);
+		case NORMAL:
+			double v = uniform(mix(key ^ 0xB5297A4DL));
+			double z = Math.sqrt(-2 * Math.log(1 - u)) * Math.cos(2 * Math.PI * v);
+			double value = Math.rint((min + max) / 2 + z * (max - min) / 6);
+			return Math.max(Math.ceil(min), Math.min(Math.floor(max), value));
+		default:
+			double lo = Math.ceil(min), hi = Math.floor(max);
+			return Math.min(hi, lo + Math.floor(u * (hi - lo + 1)));
+		}
+
+	}
+
+	/**
+	 * Builds the generated matrix in the storage chosen by
+	 * {@link QBFMatrixBuilder}.
+	 *
+	 * @return the matrix of coefficients.
+	 * @throws IOException
+	 *             Necessary for I/O operations of off-heap matrices.
+	 */
+	public QBFMatrix generate() throws IOException {
+
+		QBFMatrixBuilder builder = new QBFMatrixBuilder(size);
+		for (int i = 0; i < size; i++) {
+			for (int j = i; j < size; j++) {
+				builder.set(i, j, get(i, j));
+			}
+		}
+		return builder.build();
+
+	}
+
+	/**
+	 * Writes the generated instance in text format.
+	 *
+	 * @param filename
+	 *            Name of the file to be written.
+	 * @throws IOException
+	 *             Necessary for I/O operations.
+	 */
+	public void writeText(String filename) throws IOException {
+
+		try (OutputStream out = new BufferedOutputStream(new FileOutputStream(filename), 1 << 16)) {
+			StringBuilder line = new StringBuilder();
+			line.append(size).append('\n');
+			for (int i = 0; i < size; i++) {
+				for (int j = i; j < size; j++) {
+					if (j > i)
+						line.append(' ');
+					double value = get(i, j);
+					if (value == Math.rint(value) && Math.abs(value) < 1e15)
+						line.append((long) value);
+					else
+						line.append(value);
+				}
+				line.append('\n');
+				out.write(line.toString().getBytes(StandardCharsets.US_ASCII));
+				line.setLength(0);
+			}
+		}
+
+	}
+
+	/**
+	 * Writes the generated instance in the binary format of
+	 * {@link QBFBinaryFormat}.
+	 *
+	 * @param filename
+	 *            Name of the file to be written.
+	 * @throws IOException
+	 *             Necessary for I/O operations.
+	 */
+	public void writeBinary(String filename) throws IOException {
+		QBFBinaryFormat.write(new GeneratedMatrix(), filename);
+	}
+
+	/**
+	 * Mixes the bits of a key, as in the SplitMix64 generator.
+	 */
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+
+	/**
+	 * Maps the bits of a key to a double uniformly distributed in [0,1).
+	 */
+	private static double uniform(long z) {
+		return (z >>> 11) * 0x1.0p-53;
+	}
+
+	/**
+	 * The generated matrix, whose coefficients are drawn whenever they are
+	 * read. It is only meant to be scanned once, as when it is written.
+	 */
+	private class GeneratedMatrix implements QBFMatrix {
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see problems.qbf.QBFMatrix#size()
+		 */
+		@Override
+		public int size() {
+			return size;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see problems.qbf.QBFMatrix#get(int, int)
+		 */
+		@Override
+		public double get(int i, int j) {
+			return QBFInstanceGenerator.this.get(i, j);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see problems.qbf.QBFMatrix#evaluate(double[])
+		 */
+		@Override
+		public double evaluate(double[] variables) {
+			double sum = 0.0;
+			for (int i = 0; i < size; i++) {
+				if (variables[i] != 0)
+					for (int j = i; j < size; j++) {
+						sum += variables[i] * variables[j] * get(i, j);
+					}
+			}
+			return sum;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see problems.qbf.QBFMatrix#contribution(int, double[])
+		 */
+		@Override
+		public double contribution(int i, double[] variables) {
+			double sum = get(i, i);
+			for (int j = 0; j < size; j++) {
+				if (j != i)
+					sum += variables[j] * (get(i, j) + get(j, i));
+			}
+			return sum;
+		}
+
+		/*
+		 * (non-Javadoc)
+		 *
+		 * @see problems.qbf.QBFMatrix#updateContributions(int, double, double[])
+		 */
+		@Override
+		public void updateContributions(int i, double factor, double[] contributions) {
+			for (int j = 0; j < size; j++) {
+				if (j != i)
+					contributions[j] += factor * (get(i, j) + get(j, i));
+			}
+		}
+
+	}
+
+	/**
+	 * A main method which writes a generated instance.
+	 *
+	 * @param args
+	 *            the dimension, the density, the smallest and the largest
+	 *            coefficients, the distribution (UNIFORM, UNIFORM_REAL or
+	 *            NORMAL), the seed, the name of the file to be written and,
+	 *            optionally, "binary" for the binary format.
+	 */
+	public static void main(String[] args) throws IOException {
+
+		if (args.length < 7) {
+			System.err.println("Usage: QBFInstanceGenerator <n> <density> <min> <max> <distribution> <seed> <file> [binary]");
+			System.exit(1);
+		}
+		QBFInstanceGenerator generator = new QBFInstanceGenerator(Integer.parseInt(args[0]), Double.parseDouble(args[1]), Double.parseDouble(args[2]),
+				Double.parseDouble(args[3]), Distribution.valueOf(args[4]), Long.parseLong(args[5]));
+		if (args.length > 7 && args[7].equals("binary"))
+			generator.writeBinary(args[6]);
+		else
+			generator.writeText(args[6]);
+
+	}
+
+}
@@ -0,0 +1,421 @@
+package problems.qbf;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Reader of the QBF instances in text format, i.e., the dimension n followed
+ * by the rows of the triangular superior matrix of coefficients. The file is
+ * mapped through a {@link FileChannel} and the coefficients are parsed
+ * straight from its bytes, integers being accumulated without any conversion
+ * to text. Coefficients which are not integers are still accepted, and are
+ * parsed by {@link Double#parseDouble(String)}.
+ *
+ * The coefficients are handed to a {@link QBFMatrixBuilder}, which chooses
+ * the storage of the matrix. When {@link #threads} is greater than one, the
+ * file is split into byte ranges ending at whitespace, which are parsed in
+ * parallel: their tokens are counted first, so that each range knows the
+ * position of its first coefficient in the matrix, and the nonzero
+ * coefficients of each range are then handed to the builder in batches of at
+ * most {@link #BATCH_SIZE} as they are parsed. The heap used by the ranges
+ * thus does not depend on the size of the instance, and the coefficients of
+ * an off-heap matrix go straight into its file.
+ *
+ * Instances in the format of {@link QBFBinaryFormat} are recognized by their
+ * magic number and are memory-mapped instead of parsed.
+ *
+ * @author ccavellucci, fusberti
+ */
+public class QBFInstanceReader {
+
+	/**
+	 * the number of threads used to parse an instance
+	 */
+	public static int threads = 1;
+
+	/**
+	 * The largest number of bytes mapped at once.
+	 */
+	private static final long MAX_RANGE = 1 << 30;
+
+	/**
+	 * The largest number of nonzero coefficients kept by a range parsed in
+	 * parallel before they are handed to the builder.
+	 */
+	private static final int BATCH_SIZE = 1 << 16;
+
+	/**
+	 * Reads an instance.
+	 *
+	 * @param filename
+	 *            Name of the file containing the instance.
+	 * @return the matrix of coefficients of the instance.
+	 * @throws IOException
+	 *             Necessary for I/O operations, and thrown as well if the
+	 *             file is not a valid instance.
+	 */
+	public static QBFMatrix read(String filename) throws IOException {
+
+		if (QBFBinaryFormat.isBinary(filename))
+			return QBFBinaryFormat.read(filename);
+
+		try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ)) {
+
+			long length = channel.size();
+			long[] header = readHeader(channel, filename);
+			int size = (int) header[0];
+			QBFMatrixBuilder builder = new QBFMatrixBuilder(size);
+			long[] bounds = split(channel, header[1], length, Math.max(1, threads));
+			long coefficients = MappedQBFMatrix.packedLength(size);
+
+			long parsed;
+			if (threads <= 1) {
+				parsed = 0;
+				for (int r = 0; r + 1 < bounds.length; r++) {
+					Range range = new Range(channel, bounds[r], bounds[r + 1], size);
+					parsed = range.parse(parsed, coefficients, builder, false);
+				}
+			} else {
+				parsed = readParallel(channel, bounds, size, coefficients, builder);
+			}
+			if (parsed < coefficients)
+				throw new IOException("Instance " + filename + " ends after " + parsed + " of its " + coefficients + " coefficients");
+
+			return builder.build();
+
+		}
+
+	}
+
+	/**
+	 * Parses the ranges of the file in parallel, each one handing its
+	 * coefficients to the builder in batches.
+	 *
+	 * @return the number of coefficients found in the file.
+	 */
+	private static long readParallel(FileChannel channel, long[] bounds, int size, long coefficients, QBFMatrixBuilder builder) throws IOException {
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+		try {
+
+			List<Range> ranges = new ArrayList<Range>();
+			for (int r = 0; r + 1 < bounds.length; r++) {
+				ranges.add(new Range(channel, bounds[r], bounds[r + 1], size));
+			}
+
+			/* Counts the tokens of each range. */
+			List<Future<Long>> counts = new ArrayList<Future<Long>>();
+			for (final Range range : ranges) {
+				counts.add(executor.submit(new Callable<Long>() {
+					@Override
+					public Long call() {
+						return range.count();
+					}
+				}));
+			}
+			long[] first = new long[ranges.size() + 1];
+			for (int r = 0; r < ranges.size(); r++) {
+				first[r + 1] = first[r] + counts.get(r).get();
+			}
+
+			/* Parses each range, handing its nonzero coefficients in batches. */
+			List<Future<Long>> parses = new ArrayList<Future<Long>>();
+			for (int r = 0; r < ranges.size(); r++) {
+				final Range range = ranges.get(r);
+				final long from = first[r];
+				parses.add(executor.submit(new Callable<Long>() {
+					@Override
+					public Long call() throws IOException {
+						return range.parse(from, coefficients, builder, true);
+					}
+				}));
+			}
+			long parsed = 0;
+			for (int r = 0; r < ranges.size(); r++) {
+				parsed = parses.get(r).get();
+				ranges.get(r).flush(builder);
+			}
+
+			return parsed;
+
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while reading an instance", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof IOException)
+				throw (IOException) e.getCause();
+			throw new IOException(e.getCause());
+		} finally {
+			executor.shutdownNow();
+		}
+
+	}
+
+	/**
+	 * Reads the dimension of the instance.
+	 *
+	 * @return the dimension at position 0, and the position of the byte
+	 *         following it at position 1.
+	 */
+	private static long[] readHeader(FileChannel channel, String filename) throws IOException {
+
+		ByteBuffer buffer = channel.map(MapMode.READ_ONLY, 0, Math.min(channel.size(), 4096));
+		int p = 0, limit = buffer.limit();
+		long size = 0;
+
+		while (p < limit && isSpace(buffer.get(p)))
+			p++;
+		int start = p;
+		while (p < limit && !isSpace(buffer.get(p))) {
+			byte b = buffer.get(p++);
+			if (b < '0' || b > '9' || size > Integer.MAX_VALUE)
+				throw new IOException("Instance " + filename + " does not start with its dimension");
+			size = 10 * size + (b - '0');
+		}
+		if (p == start || size > Integer.MAX_VALUE)
+			throw new IOException("Instance " + filename + " does not start with its dimension");
+
+		return new long[] { size, p };
+
+	}
+
+	/**
+	 * Splits the bytes from start to end into at least the given number of
+	 * ranges, each one ending at whitespace or at the end of the file, and
+	 * none of them larger than {@link #MAX_RANGE} unless a single token is.
+	 *
+	 * @return the bounds of the ranges.
+	 */
+	private static long[] split(FileChannel channel, long start, long end, int parts) throws IOException {
+
+		int count = (int) Math.max(parts, (end - start + MAX_RANGE - 1) / MAX_RANGE);
+		long[] bounds = new long[count + 1];
+		ByteBuffer one = ByteBuffer.allocate(1);
+
+		bounds[0] = start;
+		for (int r = 1; r < count; r++) {
+			long bound = Math.max(bounds[r - 1], start + (end - start) / count * r);
+			while (bound > start && bound < end) {
+				one.clear();
+				channel.read(one, bound - 1);
+				if (isSpace(one.get(0)))
+					break;
+				bound++;
+			}
+			bounds[r] = bound;
+		}
+		bounds[count] = end;
+
+		return bounds;
+
+	}
+
+	/**
+	 * Tells whether a byte separates the tokens of an instance.
+	 */
+	private static boolean isSpace(byte b) {
+		return b == ' ' || b == '\n' || b == '\r' || b == '\t' || b == '\f';
+	}
+
+	/**
+	 * A range of bytes of the instance, which holds a whole number of tokens.
+	 */
+	private static class Range {
+
+		/**
+		 * The bytes of the range.
+		 */
+		private final MappedByteBuffer buffer;
+
+		/**
+		 * Dimension of the matrix.
+		 */
+		private final int size;
+
+		/**
+		 * The row of each nonzero coefficient kept by {@link #parse}.
+		 */
+		private int[] rows;
+
+		/**
+		 * The column of each nonzero coefficient kept by {@link #parse}.
+		 */
+		private int[] cols;
+
+		/**
+		 * The value of each nonzero coefficient kept by {@link #parse}.
+		 */
+		private double[] vals;
+
+		/**
+		 * The number of nonzero coefficients kept, at most
+		 * {@link #BATCH_SIZE}.
+		 */
+		private int nonzeros;
+
+		/**
+		 * Maps a range of the file.
+		 */
+		Range(FileChannel channel, long start, long end, int size) throws IOException {
+			this.buffer = channel.map(MapMode.READ_ONLY, start, end - start);
+			this.size = size;
+		}
+
+		/**
+		 * Counts the tokens of the range.
+		 */
+		long count() {
+
+			long tokens = 0;
+			boolean inToken = false;
+
+			for (int p = 0, limit = buffer.limit(); p < limit; p++) {
+				boolean space = isSpace(buffer.get(p));
+				if (!space && !inToken)
+					tokens++;
+				inToken = !space;
+			}
+
+			return tokens;
+
+		}
+
+		/**
+		 * Parses the tokens of the range, the first one being the coefficient
+		 * of the given position of the packed matrix. Tokens past the last
+		 * coefficient are ignored.
+		 *
+		 * @param from
+		 *            The position of the first token of the range.
+		 * @param coefficients
+		 *            The number of coefficients of the matrix.
+		 * @param builder
+		 *            The builder to which the coefficients are handed.
+		 * @param shared
+		 *            Whether the builder is shared with other threads, in
+		 *            which case the coefficients are kept and handed to it in
+		 *            batches by {@link #flush}.
+		 * @return the position following the last token of the range.
+		 */
+		long parse(long from, long coefficients, QBFMatrixBuilder builder, boolean shared) throws IOException {
+
+			long t = from;
+			int i = 0, j = 0;
+			int p = 0, limit = buffer.limit();
+
+			/* Finds the coordinates of the first coefficient. */
+			long skipped = Math.min(from, coefficients);
+			while (i < size && skipped >= size - i) {
+				skipped -= size - i;
+				i++;
+			}
+			j = i + (int) skipped;
+
+			while (true) {
+				while (p < limit && isSpace(buffer.get(p)))
+					p++;
+				if (p == limit)
+					break;
+
+				/* Parses a token, as an integer whenever possible. */
+				int start = p;
+				boolean negative = false;
+				byte b = buffer.get(p);
+				if (b == '-' || b == '+') {
+					negative = (b == '-');
+					p++;
+				}
+				long integer = 0;
+				int digits = 0;
+				while (p < limit && (b = buffer.get(p)) >= '0' && b <= '9' && digits < 18) {
+					integer = 10 * integer + (b - '0');
+					digits++;
+					p++;
+				}
+				double value;
+				if (digits > 0 && (p == limit || isSpace(buffer.get(p)))) {
+					value = negative ? -integer : integer;
+				} else {
+					while (p < limit && !isSpace(buffer.get(p)))
+						p++;
+					value = parseDouble(start, p);
+				}
+
+				if (t++ < coefficients) {
+					if (value != 0) {
+						if (!shared)
+							builder.set(i, j, value);
+						else
+							keep(i, j, value, builder);
+					}
+					if (++j == size)
+						j = ++i;
+				}
+			}
+
+			return t;
+
+		}
+
+		/**
+		 * Hands the coefficients kept by {@link #parse} to a builder shared
+		 * with other threads.
+		 */
+		void flush(QBFMatrixBuilder builder) {
+			synchronized (builder) {
+				for (int k = 0; k < nonzeros; k++) {
+					builder.set(rows[k], cols[k], vals[k]);
+				}
+			}
+			nonzeros = 0;
+		}
+
+		/**
+		 * Keeps a nonzero coefficient, handing the ones kept to the builder
+		 * once a batch is full.
+		 */
+		private void keep(int i, int j, double value, QBFMatrixBuilder builder) {
+			if (vals == null) {
+				rows = new int[BATCH_SIZE];
+				cols = new int[BATCH_SIZE];
+				vals = new double[BATCH_SIZE];
+			} else if (nonzeros == BATCH_SIZE) {
+				flush(builder);
+			}
+			rows[nonzeros] = i;
+			cols[nonzeros] = j;
+			vals[nonzeros++] = value;
+		}
+
+		/**
+		 * Parses a token which is not a plain integer.
+		 */
+		private double parseDouble(int start, int end) throws IOException {
+			byte[] bytes = new byte[end - start];
+			for (int k = 0; k < bytes.length; k++) {
+				bytes[k] = buffer.get(start + k);
+			}
+			String token = new String(bytes, "US-ASCII");
+			try {
+				return Double.parseDouble(token);
+			} catch (NumberFormatException e) {
+				throw new IOException("Invalid coefficient " + token, e);
+			}
+		}
+
+	}
+
+}
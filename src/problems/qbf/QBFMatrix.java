@@ -0,0 +1,91 @@
+package problems.qbf;
+
+/**
+ * Storage backend for the matrix A of coefficients of a QBF f(x) = x'.A.x.
+ * The instances are read as triangular superior matrices, so {@link #get}
+ * returns zero for every element below the diagonal. Implementations keep
+ * the coefficients in primitive storage, and the variables are given as a
+ * primitive vector of zeros and ones.
+ *
+ * @author ccavellucci, fusberti
+ */
+public interface QBFMatrix {
+
+	/**
+	 * Gives the dimension of the matrix, i.e., the number of binary variables
+	 * of the QBF.
+	 *
+	 * @return the dimension of the matrix.
+	 */
+	public abstract int size();
+
+	/**
+	 * Gives the coefficient a_{ij} of the triangular superior matrix A.
+	 *
+	 * @param i
+	 *            row of the coefficient.
+	 * @param j
+	 *            column of the coefficient.
+	 * @return the coefficient a_{ij}, which is zero whenever i > j.
+	 */
+	public abstract double get(int i, int j);
+
+	/**
+	 * Evaluates a QBF by calculating the matrix multiplication that defines the
+	 * QBF: f(x) = x'.A.x .
+	 *
+	 * @param variables
+	 *            the vector x of binary variables.
+	 * @return The value of the QBF.
+	 */
+	public abstract double evaluate(double[] variables);
+
+	/**
+	 * Determines the contribution of variable i to the QBF, i.e.,
+	 * a_{ii} + \sum_{j != i}{(a_{ij} + a_{ji}) * x_j}, which is the variation
+	 * of the objective function when x_i is set from zero to one.
+	 *
+	 * @param i
+	 *            index of the variable.
+	 * @param variables
+	 *            the vector x of binary variables.
+	 * @return the contribution of the variable.
+	 */
+	public abstract double contribution(int i, double[] variables);
+
+	/**
+	 * Updates the contributions of all variables after x_i is flipped, by
+	 * adding factor * (a_{ij} + a_{ji}) to contributions[j] for every j != i.
+	 * A factor of 1 corresponds to setting x_i to one and a factor of -1 to
+	 * setting x_i to zero.
+	 *
+	 * @param i
+	 *            index of the flipped variable.
+	 * @param factor
+	 *            the direction of the flip.
+	 * @param contributions
+	 *            the contributions of the variables, as given by
+	 *            {@link #contribution(int, double[])}.
+	 */
+	public abstract void updateContributions(int i, double factor, double[] contributions);
+
+	/**
+	 * Lists the variables interacting with variable i, i.e., the indices
+	 * j != i with a_{ij} + a_{ji} nonzero, whose contributions change when
+	 * x_i is flipped. Storages which do not keep the nonzero pattern of the
+	 * matrix list nothing, and every variable must then be assumed to
+	 * interact with i.
+	 *
+	 * @param i
+	 *            index of the variable.
+	 * @param neighbors
+	 *            the array which receives the interacting variables, whose
+	 *            length must be at least the dimension of the matrix.
+	 * @return the number of interacting variables, or -1 if the pattern is
+	 *         not known.
+	 */
+	public default int neighbors(int i, int[] neighbors) {
+		return -1;
+	}
+
+}
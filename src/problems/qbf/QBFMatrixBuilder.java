@@ -0,0 +1,254 @@
+package problems.qbf;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Builds a {@link QBFMatrix} from the coefficients of a triangular superior
+ * matrix, which are given one at a time, as they are read from an instance.
+ * Only the nonzero coefficients are kept while reading, and the storage
+ * backend is chosen from the density measured once every coefficient is known:
+ * instances whose density is at most {@link #sparseDensityThreshold} are
+ * stored as a {@link SparseQBFMatrix}. The remaining ones are stored as an
+ * {@link IntegerQBFMatrix} if all coefficients are integral and
+ * {@link #narrowIntegers} is set, or as a {@link DenseQBFMatrix} otherwise.
+ *
+ * Matrices of dimension {@link #offHeapSize} or more, as well as those whose
+ * n x n coefficients do not fit in an array (see
+ * {@link DenseQBFMatrix#fitsOnHeap(int)}), are written straight into a
+ * memory-mapped temporary file as they are read, and are kept off-heap
+ * as a {@link MappedQBFMatrix} unless they turn out to be sparse. The file is
+ * deleted as soon as it is mapped, so that its space is given back once the
+ * mapping is garbage collected, and the nonzero coefficients are also kept
+ * on-heap while the matrix may still turn out to be sparse, so that a sparse
+ * matrix is built without reading the file back.
+ *
+ * @author ccavellucci, fusberti
+ */
+public class QBFMatrixBuilder {
+
+	/**
+	 * the maximum fraction of nonzero coefficients of the triangular superior
+	 * matrix for which the sparse storage is chosen
+	 */
+	public static double sparseDensityThreshold = 0.1;
+
+	/**
+	 * flag that indicates whether dense matrices of integral coefficients
+	 * should be stored in the narrowest integer type which holds them
+	 */
+	public static boolean narrowIntegers = true;
+
+	/**
+	 * the minimum dimension for which the matrix is stored off-heap
+	 */
+	public static int offHeapSize = 20000;
+
+	/**
+	 * the directory of the files of the off-heap matrices, or null for the
+	 * default temporary-file directory
+	 */
+	public static File offHeapDirectory = null;
+
+	/**
+	 * Dimension of the matrix.
+	 */
+	protected final int size;
+
+	/**
+	 * The row of each nonzero coefficient, or null if the coefficients are
+	 * only kept in the off-heap matrix.
+	 */
+	protected int[] rows;
+
+	/**
+	 * The column of each nonzero coefficient.
+	 */
+	protected int[] cols;
+
+	/**
+	 * The value of each nonzero coefficient.
+	 */
+	protected double[] vals;
+
+	/**
+	 * The number of nonzero coefficients.
+	 */
+	protected int nonzeros;
+
+	/**
+	 * The off-heap matrix the coefficients are written to, if any.
+	 */
+	protected MappedQBFMatrix mapped;
+
+	/**
+	 * Constructor for the QBFMatrixBuilder class.
+	 *
+	 * @param size
+	 *            Dimension of the matrix.
+	 * @throws IOException
+	 *             Necessary for I/O operations of off-heap matrices.
+	 */
+	public QBFMatrixBuilder(int size) throws IOException {
+		this.size = size;
+		int capacity = (int) Math.min(1024L + size, MappedQBFMatrix.packedLength(size));
+		if (size >= offHeapSize || !DenseQBFMatrix.fitsOnHeap(size)) {
+			File file = File.createTempFile("qbf", ".mat", offHeapDirectory);
+			mapped = MappedQBFMatrix.create(file, size);
+			/* Platforms which cannot delete a mapped file delete it on exit. */
+			if (!file.delete())
+				file.deleteOnExit();
+		}
+		this.rows = new int[capacity];
+		this.cols = new int[capacity];
+		this.vals = new double[capacity];
+	}
+
+	/**
+	 * Gives the dimension of the matrix being built.
+	 *
+	 * @return the dimension of the matrix.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Sets the coefficient a_{ij} of the triangular superior matrix. Each
+	 * coefficient is expected to be set at most once.
+	 *
+	 * @param i
+	 *            row of the coefficient.
+	 * @param j
+	 *            column of the coefficient, which must not be smaller than i.
+	 * @param value
+	 *            the coefficient a_{ij}.
+	 */
+	public void set(int i, int j, double value) {
+		if (i > j || j >= size)
+			throw new IllegalArgumentException("Coefficient (" + i + ", " + j + ") is not in the triangular superior matrix of dimension " + size);
+		if (value == 0)
+			return;
+		if (mapped != null) {
+			mapped.set(i, j, value);
+			if (rows != null && (nonzeros + 1) / (double) MappedQBFMatrix.packedLength(size) > sparseDensityThreshold) {
+				/* The matrix is no longer sparse, so it is only kept off-heap. */
+				rows = cols = null;
+				vals = null;
+			}
+			if (rows == null) {
+				nonzeros++;
+				return;
+			}
+		}
+		if (nonzeros == vals.length) {
+			int capacity = (int) Math.min(Integer.MAX_VALUE - 8, 2L * vals.length);
+			rows = Arrays.copyOf(rows, capacity);
+			cols = Arrays.copyOf(cols, capacity);
+			vals = Arrays.copyOf(vals, capacity);
+		}
+		rows[nonzeros] = i;
+		cols[nonzeros] = j;
+		vals[nonzeros++] = value;
+	}
+
+	/**
+	 * Gives the fraction of nonzero coefficients of the triangular superior
+	 * matrix set so far.
+	 *
+	 * @return the density of the matrix.
+	 */
+	public double getDensity() {
+		return size == 0 ? 0.0 : nonzeros / (double) MappedQBFMatrix.packedLength(size);
+	}
+
+	/**
+	 * Builds the matrix, choosing its storage from its density.
+	 *
+	 * @return the matrix of coefficients.
+	 */
+	public QBFMatrix build() {
+		if (getDensity() <= sparseDensityThreshold)
+			return buildSparse();
+		if (mapped != null)
+			return mapped;
+		if (narrowIntegers && IntegerQBFMatrix.widthOf(nonzeros, vals) > 0)
+			return buildInteger();
+		return buildDense();
+	}
+
+	/**
+	 * Builds the matrix using dense storage.
+	 *
+	 * @return the matrix of coefficients.
+	 * @throws IllegalArgumentException
+	 *             if the n x n coefficients do not fit in an array.
+	 */
+	public DenseQBFMatrix buildDense() {
+		if (!DenseQBFMatrix.fitsOnHeap(size))
+			throw new IllegalArgumentException("Dimension " + size + " is too large for an on-heap dense matrix");
+		if (mapped != null)
+			collectMapped();
+		double[] a = new double[size * size];
+		for (int k = 0; k < nonzeros; k++) {
+			a[rows[k] * size + cols[k]] = vals[k];
+		}
+		return new DenseQBFMatrix(size, a);
+	}
+
+	/**
+	 * Builds the matrix using dense storage of integers, which requires every
+	 * coefficient to be integral.
+	 *
+	 * @return the matrix of coefficients.
+	 * @throws IllegalArgumentException
+	 *             if the coefficients are not integral or the n x n of them
+	 *             do not fit in an array.
+	 */
+	public IntegerQBFMatrix buildInteger() {
+		if (!DenseQBFMatrix.fitsOnHeap(size))
+			throw new IllegalArgumentException("Dimension " + size + " is too large for an on-heap dense matrix");
+		if (mapped != null)
+			collectMapped();
+		return new IntegerQBFMatrix(size, nonzeros, rows, cols, vals);
+	}
+
+	/**
+	 * Builds the matrix using sparse storage.
+	 *
+	 * @return the matrix of coefficients.
+	 */
+	public SparseQBFMatrix buildSparse() {
+		if (mapped != null)
+			collectMapped();
+		return new SparseQBFMatrix(size, nonzeros, rows, cols, vals);
+	}
+
+	/**
+	 * Discards the off-heap matrix, reading its nonzero coefficients back
+	 * unless they were also kept on-heap.
+	 */
+	private void collectMapped() {
+		if (rows != null) {
+			mapped = null;
+			return;
+		}
+		rows = new int[nonzeros];
+		cols = new int[nonzeros];
+		vals = new double[nonzeros];
+		int k = 0;
+		for (int i = 0; i < size; i++) {
+			for (int j = i; j < size; j++) {
+				double value = mapped.get(i, j);
+				if (value != 0) {
+					rows[k] = i;
+					cols[k] = j;
+					vals[k++] = value;
+				}
+			}
+		}
+		mapped = null;
+	}
+
+}
@@ -1,16 +1,15 @@
 package problems.qbf;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
-import java.io.Reader;
-import java.io.StreamTokenizer;
 import java.util.Arrays;
+import java.util.List;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Set;
 
-import problems.Evaluator;
+import problems.ConstraintSet;
+import problems.IntEvaluator;
+import problems.IntIncrementalEvaluator;
 import solutions.Solution;
 
 /**
@@ -27,7 +26,7 @@ import solutions.Solution;
  * @author ccavellucci, fusberti
  *
  */
-public class QBFPT implements Evaluator<Integer> {
+public class QBFPT implements IntEvaluator {
 
 	/**
 	 * Dimension of the domain.
@@ -37,22 +36,41 @@ public class QBFPT implements Evaluator<Integer> {
 	/**
 	 * The array of numbers representing the domain.
 	 */
-	public final Double[] variables;
+	public final double[] variables;
+
+	/**
+	 * The contributions of all variables, computed by
+	 * {@link #evaluateInsertionsQBF(List, double[])}.
+	 */
+	protected final double[] contributions;
+
+	/**
+	 * The instance being evaluated, which may be shared with other evaluators.
+	 */
+	public final QBFInstance instance;
 
 	/**
 	 * The matrix A of coefficients for the QBF f(x) = x'.A.x
 	 */
-	public Double[][] A;
+	public QBFMatrix A;
 	
 	/**
-	 * triples
+	 * The elements of the prohibited triples, three by three, as given by
+	 * {@link QBFInstance#getTriples()}.
 	 */
-	public Integer[][] triples;
+	public final int[] triples;
+
+	/**
+	 * The side constraints of the problem, starting with the prohibited
+	 * triples, to which other constraints may be added.
+	 */
+	public final ConstraintSet constraints;
 
 	/**
 	 * The constructor for QuadracticBinaryFunction class. The filename of the
-	 * input for setting matrix of coefficients A of the QBF. The dimension of
-	 * the array of variables x is returned from the {@link #readInput} method.
+	 * input for setting matrix of coefficients A of the QBF. The instance is
+	 * obtained from {@link QBFInstanceCache}, so it is read only once however
+	 * many evaluators are created for it.
 	 * 
 	 * @param filename
 	 *            Name of the file containing the input for setting the QBF.
@@ -60,47 +78,36 @@ public class QBFPT implements Evaluator<Integer> {
 	 *             Necessary for I/O operations.
 	 */
 	public QBFPT(String filename) throws IOException {
-		size = readInput(filename);
-		variables = allocateVariables();
-		triples = new Integer[size][3];
-		for (int i = 0; i < size; i++) {
-			triples[i][0] = i;
-			triples[i][1] = g(i, 131, 1031, size);
-			triples[i][2] = h(i, 193, 1093, size);
-			Arrays.sort(triples[i]);
-			System.out.println("trilpas["+i+"] = ["+triples[i][0]+", "+triples[i][1]+", " +triples[i][2]+"] ");
-			
-		}
+		this(QBFInstanceCache.get(filename));
 	}
-	int l(int u, int pi1, int pi2, int size){
-		
-		return (((pi1*u) + pi2)%(size));
+
+	/**
+	 * Constructor for an evaluator of an instance already read, which only
+	 * allocates the arrays of variables and contributions.
+	 * 
+	 * @param instance
+	 *            The instance to be evaluated.
+	 */
+	public QBFPT(QBFInstance instance) {
+		this.instance = instance;
+		A = instance.A;
+		size = instance.size();
+		variables = allocateVariables();
+		contributions = allocateVariables();
+		triples = instance.getTriples();
+		constraints = new ConstraintSet(size);
+		constraints.add(new TripleConstraint(instance));
 	}
-	
-	int g(int u, int pi1, int pi2, int size){
-		pi1 = 131;
-		pi2 = 1031;
-		int lu = l(u, pi1, pi2, (size));
-		if (lu != u) {
-			return lu; 
-		}
-		return 1 + (lu%(size));
+
+	/**
+	 * Gives the side constraints of the problem.
+	 * 
+	 * @return the constraints, the first one being the prohibited triples.
+	 */
+	public ConstraintSet getConstraints() {
+		return constraints;
 	}
-	
-	int h(int u, int pi1, int pi2, int size){
-		pi1 = 193;
-		pi2 = 1093;
-		int lu = l(u, pi1, pi2, (size)),
-			gu = g(u, pi1, pi2, (size));
-		if (lu != u && lu != gu) {
-			return lu ;
-		}
-		int temp = (1 + (lu%(size)));
-		if (temp != u && temp != gu) {
-			return temp;
-		}
-		return 1 + ((lu + 1)%(size));
-	}	
+
 	/**
 	 * Evaluates the value of a solution by transforming it into a vector. This
 	 * is required to perform the matrix multiplication which defines a QBF.
@@ -154,19 +161,7 @@ public class QBFPT implements Evaluator<Integer> {
 	 */
 	public Double evaluateQBFPT() {
 
-		Double aux = (double) 0, sum = (double) 0;
-		Double vecAux[] = new Double[size];
-
-		for (int i = 0; i < size; i++) {
-			for (int j = 0; j < size; j++) {
-				aux += variables[j] * A[i][j];
-			}
-			vecAux[i] = aux;
-			sum += aux * variables[i];
-			aux = (double) 0;
-		}
-
-		return sum;
+		return A.evaluate(variables);
 
 	}
 
@@ -201,6 +196,48 @@ public class QBFPT implements Evaluator<Integer> {
 		return evaluateContributionQBF(i);
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see problems.Evaluator#evaluateInsertionCosts(java.util.List,
+	 * solutions.Solution, double[])
+	 */
+	@Override
+	public void evaluateInsertionCosts(List<Integer> candidates, Solution<Integer> sol, double[] costs) {
+
+		setVariables(sol);
+		evaluateInsertionsQBF(candidates, costs);
+
+	}
+
+	/**
+	 * Determines the contribution to the QBF objective function from the
+	 * insertion of each one of a set of candidates. The contributions of all
+	 * variables are obtained in a single matrix-vector pass, which adds up the
+	 * rows of the variables set to one.
+	 * 
+	 * @param candidates
+	 *            Indices of the elements being inserted into the solution.
+	 * @param costs
+	 *            Receives, at position k, the variation of the objective
+	 *            function resulting from the insertion of the k-th candidate.
+	 */
+	public void evaluateInsertionsQBF(List<Integer> candidates, double[] costs) {
+
+		for (int i = 0; i < size; i++) {
+			contributions[i] = A.get(i, i);
+		}
+		for (int i = 0; i < size; i++) {
+			if (variables[i] == 1)
+				A.updateContributions(i, 1.0, contributions);
+		}
+		for (int k = 0; k < candidates.size(); k++) {
+			int i = candidates.get(k);
+			costs[k] = (variables[i] == 1) ? 0.0 : contributions[i];
+		}
+
+	}
+
 	/*
 	 * (non-Javadoc)
 	 * 
@@ -273,11 +310,25 @@ public class QBFPT implements Evaluator<Integer> {
 
 		sum += evaluateContributionQBF(in);
 		sum -= evaluateContributionQBF(out);
-		sum -= (A[in][out] + A[out][in]);
+		sum -= (A.get(in, out) + A.get(out, in));
 
 		return sum;
 	}
 
+	/*
+	 * (non-Javadoc)
+	 * 
+	 * @see problems.Evaluator#createIncrementalEvaluator(solutions.Solution)
+	 */
+	@Override
+	public IntIncrementalEvaluator createIncrementalEvaluator(Solution<Integer> sol) {
+
+		QBFIncrementalEvaluator evaluator = new QBFIncrementalEvaluator(A, 1.0, sol);
+		evaluator.setConstraints(constraints);
+		return evaluator;
+
+	}
+
 	/**
 	 * Determines the contribution to the QBF objective function from the
 	 * insertion of an element. This method is faster than evaluating the whole
@@ -294,49 +345,7 @@ public class QBFPT implements Evaluator<Integer> {
 	 */
 	private Double evaluateContributionQBF(int i) {
 
-		Double sum = 0.0;
-
-		for (int j = 0; j < size; j++) {
-			if (i != j)
-				sum += variables[j] * (A[i][j] + A[j][i]);
-		}
-		sum += A[i][i];
-
-		return sum;
-	}
-
-	/**
-	 * Responsible for setting the QBF function parameters by reading the
-	 * necessary input from an external file. this method reads the domain's
-	 * dimension and matrix {@link #A}.
-	 * 
-	 * @param filename
-	 *            Name of the file containing the input for setting the black
-	 *            box function.
-	 * @return The dimension of the domain.
-	 * @throws IOException
-	 *             Necessary for I/O operations.
-	 */
-	protected Integer readInput(String filename) throws IOException {
-
-		Reader fileInst = new BufferedReader(new FileReader(filename));
-		StreamTokenizer stok = new StreamTokenizer(fileInst);
-
-		stok.nextToken();
-		Integer _size = (int) stok.nval;
-		A = new Double[_size][_size];
-
-		for (int i = 0; i < _size; i++) {
-			for (int j = i; j < _size; j++) {
-				stok.nextToken();
-				A[i][j] = stok.nval;
-				//A[j][i] = A[i][j];
-				if (j>i)
-					A[j][i] = 0.0;
-			}
-		}
-
-		return _size;
+		return A.contribution(i, variables);
 
 	}
 
@@ -346,8 +355,8 @@ public class QBFPT implements Evaluator<Integer> {
 	 * 
 	 * @return a pointer to the array of domain variables.
 	 */
-	protected Double[] allocateVariables() {
-		Double[] _variables = new Double[size];
+	protected double[] allocateVariables() {
+		double[] _variables = new double[size];
 		return _variables;
 	}
 
@@ -365,7 +374,7 @@ public class QBFPT implements Evaluator<Integer> {
 
 		for (int i = 0; i < size; i++) {
 			for (int j = i; j < size; j++) {
-				System.out.print(A[i][j] + " ");
+				System.out.print(A.get(i, j) + " ");
 			}
 			System.out.println();
 		}
@@ -384,9 +393,9 @@ public class QBFPT implements Evaluator<Integer> {
 		QBFPT qbf = new QBFPT("instances/qbf020");
 //		print triples
 //		System.out.println("All triples");
-//		for (int i = 0; i < qbf.triples.length; i++) {
-//			for (int j = 0; j < qbf.triples[i].length; j++) {
-//				System.out.print(qbf.triples[i][j] + ", ");
+//		for (int t = 0; t < qbf.triples.length / 3; t++) {
+//			for (int j = 3 * t; j < 3 * t + 3; j++) {
+//				System.out.print(qbf.triples[j] + ", ");
 //			}
 //			System.out.println();
 //		}		
@@ -1,6 +1,10 @@
 package problems.qbf;
 
 import java.io.IOException;
+import java.util.List;
+
+import problems.IntIncrementalEvaluator;
+import solutions.Solution;
 
 /**
  * Class representing the inverse of the Quadractic Binary Function
@@ -24,6 +28,16 @@ public class QBFPT_Inverse extends QBFPT {
 		super(filename);
 	}
 
+	/**
+	 * Constructor for an inverse evaluator of an instance already read.
+	 * 
+	 * @param instance
+	 *            The instance to be evaluated.
+	 */
+	public QBFPT_Inverse(QBFInstance instance) {
+		super(instance);
+	}
+
 
 	/* (non-Javadoc)
 	 * @see problems.qbf.QBF#evaluate()
@@ -41,6 +55,17 @@ public class QBFPT_Inverse extends QBFPT {
 		return -super.evaluateInsertionQBF(i);
 	}
 	
+	/* (non-Javadoc)
+	 * @see problems.qbf.QBF#evaluateInsertionsQBF(java.util.List, double[])
+	 */
+	@Override
+	public void evaluateInsertionsQBF(List<Integer> candidates, double[] costs) {
+		super.evaluateInsertionsQBF(candidates, costs);
+		for (int k = 0; k < candidates.size(); k++) {
+			costs[k] = -costs[k];
+		}
+	}
+	
 	/* (non-Javadoc)
 	 * @see problems.qbf.QBF#evaluateRemoval(int)
 	 */
@@ -57,4 +82,14 @@ public class QBFPT_Inverse extends QBFPT {
 		return -super.evaluateExchangeQBF(in,out);
 	}
 
+	/* (non-Javadoc)
+	 * @see problems.qbf.QBF#createIncrementalEvaluator(solutions.Solution)
+	 */
+	@Override
+	public IntIncrementalEvaluator createIncrementalEvaluator(Solution<Integer> sol) {
+		QBFIncrementalEvaluator evaluator = new QBFIncrementalEvaluator(A, -1.0, sol);
+		evaluator.setConstraints(constraints);
+		return evaluator;
+	}
+
 }
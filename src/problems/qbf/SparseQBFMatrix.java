@@ -0,0 +1,245 @@
+package problems.qbf;
+
+/**
+ * Sparse {@link QBFMatrix} stored in CSR (compressed sparse row) form. Since
+ * the symmetrized matrix (A + A') is stored, row i holds every nonzero
+ * (a_{ij} + a_{ji}) with j != i, with columns in increasing order, and the
+ * diagonal is kept apart. Contributions and updates cost O(nnz in row i) and
+ * the evaluation of the QBF costs O(nnz) instead of O(n^2).
+ *
+ * @author ccavellucci, fusberti
+ */
+public class SparseQBFMatrix implements QBFMatrix {
+
+	/**
+	 * Dimension of the matrix.
+	 */
+	protected final int size;
+
+	/**
+	 * The diagonal coefficients a_{ii}.
+	 */
+	protected final double[] diagonal;
+
+	/**
+	 * The entries of row i are stored in positions [rowStart[i],
+	 * rowStart[i+1]) of {@link #columns} and {@link #values}.
+	 */
+	protected final int[] rowStart;
+
+	/**
+	 * The position of the first entry of row i whose column is greater than i.
+	 */
+	protected final int[] upperStart;
+
+	/**
+	 * The column of each entry.
+	 */
+	protected final int[] columns;
+
+	/**
+	 * The value of each entry.
+	 */
+	protected final double[] values;
+
+	/**
+	 * Constructor for the SparseQBFMatrix class, which symmetrizes the nonzero
+	 * coefficients of a triangular superior matrix given in coordinate form.
+	 *
+	 * @param size
+	 *            Dimension of the matrix.
+	 * @param nonzeros
+	 *            Number of coordinates given.
+	 * @param rows
+	 *            The row of each coordinate, which is at most its column.
+	 * @param cols
+	 *            The column of each coordinate.
+	 * @param vals
+	 *            The coefficient of each coordinate.
+	 */
+	public SparseQBFMatrix(int size, int nonzeros, int[] rows, int[] cols, double[] vals) {
+		this.size = size;
+		this.diagonal = new double[size];
+		this.rowStart = new int[size + 1];
+		this.upperStart = new int[size];
+
+		for (int k = 0; k < nonzeros; k++) {
+			if (rows[k] != cols[k]) {
+				rowStart[rows[k] + 1]++;
+				rowStart[cols[k] + 1]++;
+			}
+		}
+		for (int i = 0; i < size; i++) {
+			rowStart[i + 1] += rowStart[i];
+		}
+		this.columns = new int[rowStart[size]];
+		this.values = new double[rowStart[size]];
+
+		int[] next = new int[size];
+		System.arraycopy(rowStart, 0, next, 0, size);
+		for (int k = 0; k < nonzeros; k++) {
+			int i = rows[k], j = cols[k];
+			if (i == j) {
+				diagonal[i] = vals[k];
+			} else {
+				double aij = vals[k] + 0.0;
+				columns[next[i]] = j;
+				values[next[i]++] = aij;
+				columns[next[j]] = i;
+				values[next[j]++] = aij;
+			}
+		}
+
+		for (int i = 0; i < size; i++) {
+			sortRow(i);
+			int k = rowStart[i];
+			while (k < rowStart[i + 1] && columns[k] < i)
+				k++;
+			upperStart[i] = k;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.QBFMatrix#size()
+	 */
+	@Override
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gives the number of nonzero coefficients of the triangular superior
+	 * matrix A.
+	 *
+	 * @return the number of nonzero coefficients.
+	 */
+	public int getNonzeros() {
+		int nonzeros = (rowStart[size]) / 2;
+		for (int i = 0; i < size; i++) {
+			if (diagonal[i] != 0)
+				nonzeros++;
+		}
+		return nonzeros;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.QBFMatrix#get(int, int)
+	 */
+	@Override
+	public double get(int i, int j) {
+
+		if (i == j)
+			return diagonal[i];
+		if (i > j)
+			return 0.0;
+
+		int low = upperStart[i], high = rowStart[i + 1] - 1;
+		while (low <= high) {
+			int mid = (low + high) >>> 1;
+			if (columns[mid] < j)
+				low = mid + 1;
+			else if (columns[mid] > j)
+				high = mid - 1;
+			else
+				return values[mid];
+		}
+
+		return 0.0;
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.QBFMatrix#evaluate(double[])
+	 */
+	@Override
+	public double evaluate(double[] variables) {
+
+		double aux, sum = 0.0;
+
+		for (int i = 0; i < size; i++) {
+			if (variables[i] == 0)
+				continue;
+			aux = variables[i] * diagonal[i];
+			for (int k = upperStart[i]; k < rowStart[i + 1]; k++) {
+				aux += variables[columns[k]] * values[k];
+			}
+			sum += aux * variables[i];
+		}
+
+		return sum;
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.QBFMatrix#contribution(int, double[])
+	 */
+	@Override
+	public double contribution(int i, double[] variables) {
+
+		double sum = 0.0;
+
+		for (int k = rowStart[i]; k < rowStart[i + 1]; k++) {
+			sum += variables[columns[k]] * values[k];
+		}
+		sum += diagonal[i];
+
+		return sum;
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.QBFMatrix#updateContributions(int, double, double[])
+	 */
+	@Override
+	public void updateContributions(int i, double factor, double[] contributions) {
+
+		for (int k = rowStart[i]; k < rowStart[i + 1]; k++) {
+			contributions[columns[k]] += factor * values[k];
+		}
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.qbf.QBFMatrix#neighbors(int, int[])
+	 */
+	@Override
+	public int neighbors(int i, int[] neighbors) {
+
+		int count = rowStart[i + 1] - rowStart[i];
+		System.arraycopy(columns, rowStart[i], neighbors, 0, count);
+		return count;
+
+	}
+
+	/**
+	 * Sorts the entries of a row by column, which is usually a no-op since the
+	 * coordinates are given row by row.
+	 */
+	private void sortRow(int i) {
+		for (int k = rowStart[i] + 1; k < rowStart[i + 1]; k++) {
+			int col = columns[k];
+			double val = values[k];
+			int l = k - 1;
+			while (l >= rowStart[i] && columns[l] > col) {
+				columns[l + 1] = columns[l];
+				values[l + 1] = values[l];
+				l--;
+			}
+			columns[l + 1] = col;
+			values[l + 1] = val;
+		}
+	}
+
+}
@@ -0,0 +1,226 @@
+package problems.qbf;
+
+import problems.Constraint;
+
+/**
+ * The prohibited triples constraint of the QBFPT: no triple of
+ * {@link QBFInstance#getTriples()} may have all its elements in the solution.
+ * The constraint counts the elements of each triple in the solution, and an
+ * element is forbidden while it belongs to a filled triple, i.e., one with at
+ * least two elements in the solution. The forbidden elements are kept in a
+ * bitmask, which is only updated when the counter of a triple crosses two.
+ *
+ * @author ccavellucci, fusberti
+ */
+public class TripleConstraint implements Constraint {
+
+	/**
+	 * The elements of the prohibited triples, three by three.
+	 */
+	protected final int[] triples;
+
+	/**
+	 * The ids of the triples containing each element, as given by
+	 * {@link QBFInstance#getIncidence()}.
+	 */
+	protected final int[] incidence;
+
+	/**
+	 * The position of the first triple id of each element in
+	 * {@link #incidence}.
+	 */
+	protected final int[] incidenceStart;
+
+	/**
+	 * The number of elements of each triple in the solution.
+	 */
+	protected final int[] tripleCounts;
+
+	/**
+	 * The number of filled triples containing each element.
+	 */
+	protected final int[] filledTriples;
+
+	/**
+	 * The bitmask of the forbidden elements, i.e., those in at least one
+	 * filled triple: element i is forbidden if bit i % 64 of word i / 64 is
+	 * set.
+	 */
+	protected final long[] forbidden;
+
+	/**
+	 * The call of {@link #related(int, int[])} in which each element was last
+	 * listed.
+	 */
+	protected final int[] listed;
+
+	/**
+	 * The number of calls of {@link #related(int, int[])}.
+	 */
+	protected int listing;
+
+	/**
+	 * Constructor for the TripleConstraint class.
+	 *
+	 * @param instance
+	 *            The instance whose triples are prohibited.
+	 */
+	public TripleConstraint(QBFInstance instance) {
+		triples = instance.getTriples();
+		incidence = instance.getIncidence();
+		incidenceStart = instance.getIncidenceStart();
+		tripleCounts = new int[triples.length / 3];
+		filledTriples = new int[instance.size()];
+		forbidden = new long[(instance.size() + 63) >>> 6];
+		listed = new int[instance.size()];
+	}
+
+	/**
+	 * Tells whether an element belongs to a filled triple, so that inserting
+	 * it would complete the triple.
+	 *
+	 * @param elem
+	 *            the element under consideration for insertion.
+	 * @return true if the element is in a filled triple.
+	 */
+	public boolean isForbidden(int elem) {
+		return (forbidden[elem >>> 6] & (1L << elem)) != 0;
+	}
+
+	/**
+	 * Gives the bitmask of the forbidden elements. The feasible elements may
+	 * be visited by clearing the lowest bit of each complemented word after
+	 * reading it with {@link Long#numberOfTrailingZeros(long)}.
+	 *
+	 * @return the bitmask, element i being forbidden if bit i % 64 of word
+	 *         i / 64 is set.
+	 */
+	public long[] getForbidden() {
+		return forbidden;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.Constraint#canInsert(int)
+	 */
+	@Override
+	public boolean canInsert(int elem) {
+		return !isForbidden(elem);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.Constraint#canRemove(int)
+	 */
+	@Override
+	public boolean canRemove(int elem) {
+		return true;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * A forbidden element may still enter in exchange for an element which
+	 * belongs to every filled triple containing it, each of them holding
+	 * exactly two elements of the solution.
+	 */
+	@Override
+	public boolean canExchange(int in, int out) {
+
+		if (!isForbidden(in))
+			return true;
+
+		for (int p = incidenceStart[in]; p < incidenceStart[in + 1]; p++) {
+			int t = incidence[p];
+			if (tripleCounts[t] < 2)
+				continue;
+			if (tripleCounts[t] > 2 || (triples[3 * t] != out && triples[3 * t + 1] != out && triples[3 * t + 2] != out))
+				return false;
+		}
+		return true;
+
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.Constraint#onApply(int)
+	 */
+	@Override
+	public boolean onApply(int elem) {
+		boolean marked = false;
+		for (int p = incidenceStart[elem]; p < incidenceStart[elem + 1]; p++) {
+			int t = incidence[p];
+			if (++tripleCounts[t] == 2 && markTriple(t, 1))
+				marked = true;
+		}
+		return marked;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 *
+	 * @see problems.Constraint#onUndo(int)
+	 */
+	@Override
+	public void onUndo(int elem) {
+		for (int p = incidenceStart[elem]; p < incidenceStart[elem + 1]; p++) {
+			int t = incidence[p];
+			if (--tripleCounts[t] == 1)
+				markTriple(t, -1);
+		}
+	}
+
+	/**
+	 * {@inheritDoc}
+	 *
+	 * The affected elements are the other elements of the triples of elem,
+	 * whose counters changed.
+	 */
+	@Override
+	public int related(int elem, int[] related) {
+		int count = 0;
+		listing++;
+		for (int p = incidenceStart[elem]; p < incidenceStart[elem + 1]; p++) {
+			int t = incidence[p];
+			for (int q = 3 * t; q < 3 * t + 3; q++) {
+				int other = triples[q];
+				if (other != elem && listed[other] != listing) {
+					listed[other] = listing;
+					related[count++] = other;
+				}
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Adds a triple to the filled triples of its elements, or removes it,
+	 * updating their bits.
+	 *
+	 * @return true if some element became forbidden.
+	 */
+	private boolean markTriple(int t, int delta) {
+
+		boolean marked = false;
+
+		for (int p = 3 * t; p < 3 * t + 3; p++) {
+			int elem = triples[p];
+			if (p > 3 * t && elem == triples[p - 1])
+				continue;
+			filledTriples[elem] += delta;
+			if (delta > 0 && filledTriples[elem] == 1) {
+				forbidden[elem >>> 6] |= 1L << elem;
+				marked = true;
+			} else if (delta < 0 && filledTriples[elem] == 0) {
+				forbidden[elem >>> 6] &= ~(1L << elem);
+			}
+		}
+
+		return marked;
+
+	}
+
+}
@@ -33,7 +33,7 @@ public class Experimentos {
 			
 			
 			r += " qbf"+intancesWords[i] ;
-			r += " maxVal = "+bestSol.cost.toString();
+			r += " maxVal = "+bestSol.cost;
 			
 			System.out.println("R: "+r);
 			System.out.println("maxVal = " + bestSol);
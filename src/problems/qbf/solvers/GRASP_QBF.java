@@ -4,7 +4,10 @@ import java.io.IOException;
 import java.util.ArrayList;
 
 import metaheuristics.grasp.AbstractGRASP;
+import problems.IntIncrementalEvaluator;
 import problems.qbf.QBF_Inverse;
+import solutions.BinarySolution;
+import solutions.CandidateList;
 import solutions.Solution;
 
 
@@ -46,7 +49,7 @@ public class GRASP_QBF extends AbstractGRASP<Integer> {
 	@Override
 	public ArrayList<Integer> makeCL() {
 
-		ArrayList<Integer> _CL = new ArrayList<Integer>();
+		ArrayList<Integer> _CL = new CandidateList(ObjFunction.getDomainSize());
 		for (int i = 0; i < ObjFunction.getDomainSize(); i++) {
 			Integer cand = new Integer(i);
 			_CL.add(cand);
@@ -85,13 +88,13 @@ public class GRASP_QBF extends AbstractGRASP<Integer> {
 	/**
 	 * {@inheritDoc}
 	 * 
-	 * This createEmptySol instantiates an empty solution and it attributes a
-	 * zero cost, since it is known that a QBF solution with all variables set
-	 * to zero has also zero cost.
+	 * This createEmptySol instantiates an empty binary solution and it
+	 * attributes a zero cost, since it is known that a QBF solution with all
+	 * variables set to zero has also zero cost.
 	 */
 	@Override
 	public Solution<Integer> createEmptySol() {
-		Solution<Integer> sol = new Solution<Integer>();
+		Solution<Integer> sol = new BinarySolution(ObjFunction.getDomainSize());
 		sol.cost = 0.0;
 		return sol;
 	}
@@ -105,8 +108,10 @@ public class GRASP_QBF extends AbstractGRASP<Integer> {
 	@Override
 	public Solution<Integer> localSearch() {
 
-		Double minDeltaCost;
+		double minDeltaCost;
 		Integer bestCandIn = null, bestCandOut = null;
+		int[] bestInsertion = new int[1], bestRemoval = new int[1], bestExchange = new int[2];
+		IntIncrementalEvaluator evaluator = (IntIncrementalEvaluator) incumbentEvaluator;
 		long startTime = System.currentTimeMillis();
 		long maxDurationInMilliseconds = 1 * 60 * 1000;
 
@@ -116,47 +121,38 @@ public class GRASP_QBF extends AbstractGRASP<Integer> {
 			updateCL();
 				
 			// Evaluate insertions
-			for (Integer candIn : CL) {
-				double deltaCost = ObjFunction.evaluateInsertionCost(candIn, incumbentSol);
-				if (deltaCost < minDeltaCost) {
-					minDeltaCost = deltaCost;
-					bestCandIn = candIn;
-					bestCandOut = null;
-				}
+			double insertionCost = evaluator.evaluateBestInsertion(CL, bestInsertion);
+			if (insertionCost < minDeltaCost) {
+				minDeltaCost = insertionCost;
+				bestCandIn = bestInsertion[0];
+				bestCandOut = null;
 			}
 			// Evaluate removals
-			for (Integer candOut : incumbentSol) {
-				double deltaCost = ObjFunction.evaluateRemovalCost(candOut, incumbentSol);
-				if (deltaCost < minDeltaCost) {
-					minDeltaCost = deltaCost;
-					bestCandIn = null;
-					bestCandOut = candOut;
-				}
+			double removalCost = evaluator.evaluateBestRemoval(bestRemoval);
+			if (removalCost < minDeltaCost) {
+				minDeltaCost = removalCost;
+				bestCandIn = null;
+				bestCandOut = incumbentSol.get(bestRemoval[0]);
 			}
 			// Evaluate exchanges
-			for (Integer candIn : CL) {
-				for (Integer candOut : incumbentSol) {
-					double deltaCost = ObjFunction.evaluateExchangeCost(candIn, candOut, incumbentSol);
-					if (deltaCost < minDeltaCost) {
-						minDeltaCost = deltaCost;
-						bestCandIn = candIn;
-						bestCandOut = candOut;
-					}
-				}
+			double exchangeCost = evaluator.evaluateBestExchange(CL, bestExchange);
+			if (exchangeCost < minDeltaCost) {
+				minDeltaCost = exchangeCost;
+				bestCandIn = CL.get(bestExchange[0]);
+				bestCandOut = incumbentSol.get(bestExchange[1]);
 			}
 			// Implement the best move, if it reduces the solution cost.
-			if (minDeltaCost < -Double.MIN_VALUE) {
+			if (minDeltaCost < 0) {
 				if (bestCandOut != null) {
-					incumbentSol.remove(bestCandOut);
+					evaluator.removeElement(bestCandOut);
 					CL.add(bestCandOut);
 				}
 				if (bestCandIn != null) {
-					incumbentSol.add(bestCandIn);
+					evaluator.insertElement(bestCandIn);
 					CL.remove(bestCandIn);
 				}
-				ObjFunction.evaluate(incumbentSol);
 			}
-		} while (minDeltaCost < -Double.MIN_VALUE);
+		} while (minDeltaCost < 0);
 		}
 		return null;
 	}
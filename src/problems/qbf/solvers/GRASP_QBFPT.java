@@ -3,14 +3,17 @@ package problems.qbf.solvers;
 import java.awt.List;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.Iterator;
-import java.util.Map;
 import java.util.Set;
 
 import metaheuristics.grasp.AbstractGRASP;
+import problems.CardinalityConstraint;
+import problems.ConstraintSet;
+import problems.IntIncrementalEvaluator;
 import problems.qbf.QBFPT_Inverse;
 import problems.qbf.QBF_Inverse;
+import solutions.BinarySolution;
+import solutions.CandidateList;
 import solutions.Solution;
 
 
@@ -52,7 +55,7 @@ public class GRASP_QBFPT extends AbstractGRASP<Integer> {
 	@Override
 	public ArrayList<Integer> makeCL() {
 
-		ArrayList<Integer> _CL = new ArrayList<Integer>();
+		ArrayList<Integer> _CL = new CandidateList(ObjFunction.getDomainSize());
 		for (int i = 0; i < ObjFunction.getDomainSize(); i++) {
 			Integer cand = new Integer(i);
 			_CL.add(cand);
@@ -84,60 +87,37 @@ public class GRASP_QBFPT extends AbstractGRASP<Integer> {
 	@Override
 	public void updateCL() {
 		QBFPT_Inverse QBFPT_Inverse = (QBFPT_Inverse) super.ObjFunction;
-		Integer[][] triples = QBFPT_Inverse.triples;
-		
-		
-		
-//		mount filled triples
-		Map<Integer[], Integer> filledTriples = new HashMap<Integer[], Integer> ();			
-		for (int i = 0; i < super.incumbentSol.size(); i++) {
-			Integer item = super.incumbentSol.get(i);
-			for (int j = 0; j < triples.length; j++) {				
-				Integer tripleCount = filledTriples.get(triples[j]);						
-				Boolean tripleCountNull = tripleCount == null,
-						candidateMatch = triples[j][0].equals(item) || triples[j][1].equals(item) || triples[j][2].equals(item);
-//				System.out.println("\tTriple ("+triples[j][0]+", "+triples[j][1]+","+triples[j][2]+")");
-				if (candidateMatch) 
-					if (tripleCountNull)
-						filledTriples.put(triples[j], 1);
-					else if (tripleCount == 1) 
-						filledTriples.put(triples[j], 2);
-					else
-						break;
-//					System.out.println("\tCandidate "+item+" passed in triple ("+triples[j][0]+", "+triples[j][1]+","+triples[j][2]+")");													
-			}
-		}
-//		mount cl
-		ArrayList<Integer> oldCL = super.CL; 
-		super.CL = new ArrayList<Integer>();
-		for (int i = 0; i < oldCL.size(); i++) {
-			Boolean candidateIn = true;
-			Integer item = oldCL.get(i);
-			for (Integer[] triple : filledTriples.keySet()) {
-				Integer tripleCount = filledTriples.get(triple);
-				if (tripleCount != null && tripleCount == 2 && (triple[0].equals(item) || triple[1].equals(item) || triple[2].equals(item))) {
-//					System.out.println("\tCandidate "+item+" break in triple ("+triple[0]+", "+triple[1]+","+triple[2]+") that already has "+tripleCount);
-					candidateIn = false;
-					break;
-				}
-			}
-			if (candidateIn)
-				super.CL.add(item);
-		}
-		
-		
+//		bring the constraints up to date and drop the candidates they forbid
+		QBFPT_Inverse.constraints.filter(super.incumbentSol, super.CL);
 	}
 
 	/**
 	 * {@inheritDoc}
 	 * 
-	 * This createEmptySol instantiates an empty solution and it attributes a
-	 * zero cost, since it is known that a QBF solution with all variables set
-	 * to zero has also zero cost.
+	 * The construction also stops once the constraints let the solution grow
+	 * no further, and goes on past an insertion which does not improve the
+	 * solution while they are not satisfied and candidates are left, e.g.,
+	 * while it holds fewer elements than a cardinality constraint requires.
+	 */
+	@Override
+	public Boolean constructiveStopCriteria() {
+		ConstraintSet constraints = ((QBFPT_Inverse) ObjFunction).constraints;
+		constraints.follow(incumbentSol);
+		if (!constraints.canGrow())
+			return true;
+		return super.constructiveStopCriteria() && (constraints.isSatisfied() || CL.isEmpty());
+	}
+
+	/**
+	 * {@inheritDoc}
+	 * 
+	 * This createEmptySol instantiates an empty binary solution and it
+	 * attributes a zero cost, since it is known that a QBF solution with all
+	 * variables set to zero has also zero cost.
 	 */
 	@Override
 	public Solution<Integer> createEmptySol() {
-		Solution<Integer> sol = new Solution<Integer>();
+		Solution<Integer> sol = new BinarySolution(ObjFunction.getDomainSize());
 		sol.cost = 0.0;
 		return sol;
 	}
@@ -151,55 +131,49 @@ public class GRASP_QBFPT extends AbstractGRASP<Integer> {
 	@Override
 	public Solution<Integer> localSearch() {
 
-		Double minDeltaCost;
+		double minDeltaCost;
 		Integer bestCandIn = null, bestCandOut = null;
+		int[] bestInsertion = new int[1], bestRemoval = new int[1], bestExchange = new int[2];
+		IntIncrementalEvaluator evaluator = (IntIncrementalEvaluator) incumbentEvaluator;
+		ConstraintSet constraints = ((QBFPT_Inverse) ObjFunction).constraints;
 //		best improvement
 		do {
 			minDeltaCost = Double.POSITIVE_INFINITY;
 			updateCL();
 				
 			// Evaluate insertions
-			for (Integer candIn : CL) {
-				double deltaCost = ObjFunction.evaluateInsertionCost(candIn, incumbentSol);
-				if (deltaCost < minDeltaCost) {
-					minDeltaCost = deltaCost;
-					bestCandIn = candIn;
-					bestCandOut = null;
-				}
+			double insertionCost = evaluator.evaluateBestInsertion(CL, constraints, bestInsertion);
+			if (insertionCost < minDeltaCost) {
+				minDeltaCost = insertionCost;
+				bestCandIn = bestInsertion[0];
+				bestCandOut = null;
 			}
 			// Evaluate removals
-			for (Integer candOut : incumbentSol) {
-				double deltaCost = ObjFunction.evaluateRemovalCost(candOut, incumbentSol);
-				if (deltaCost < minDeltaCost) {
-					minDeltaCost = deltaCost;
-					bestCandIn = null;
-					bestCandOut = candOut;
-				}
+			double removalCost = evaluator.evaluateBestRemoval(constraints, bestRemoval);
+			if (removalCost < minDeltaCost) {
+				minDeltaCost = removalCost;
+				bestCandIn = null;
+				bestCandOut = incumbentSol.get(bestRemoval[0]);
 			}
 			// Evaluate exchanges
-			for (Integer candIn : CL) {
-				for (Integer candOut : incumbentSol) {
-					double deltaCost = ObjFunction.evaluateExchangeCost(candIn, candOut, incumbentSol);
-					if (deltaCost < minDeltaCost) {
-						minDeltaCost = deltaCost;
-						bestCandIn = candIn;
-						bestCandOut = candOut;
-					}
-				}
+			double exchangeCost = evaluator.evaluateBestExchange(CL, constraints, bestExchange);
+			if (exchangeCost < minDeltaCost) {
+				minDeltaCost = exchangeCost;
+				bestCandIn = CL.get(bestExchange[0]);
+				bestCandOut = incumbentSol.get(bestExchange[1]);
 			}
 			// Implement the best move, if it reduces the solution cost.
-			if (minDeltaCost < -Double.MIN_VALUE) {
+			if (minDeltaCost < 0) {
 				if (bestCandOut != null) {
-					incumbentSol.remove(bestCandOut);
+					evaluator.removeElement(bestCandOut);
 					CL.add(bestCandOut);
 				}
 				if (bestCandIn != null) {
-					incumbentSol.add(bestCandIn);
+					evaluator.insertElement(bestCandIn);
 					CL.remove(bestCandIn);
 				}
-				ObjFunction.evaluate(incumbentSol);
 			}
-		} while (minDeltaCost < -Double.MIN_VALUE);
+		} while (minDeltaCost < 0);
 		return null;
 	}
 
@@ -213,6 +187,9 @@ public class GRASP_QBFPT extends AbstractGRASP<Integer> {
 		//for (int i = 0; i < intancesWords.length; i++) {
 			long startTime = System.currentTimeMillis();
 			GRASP_QBFPT grasp = new GRASP_QBFPT(Double.parseDouble(args[0]), 1000, "instances/"+args[1]);
+//			an optional third argument limits the number of elements of the solution, and a fourth one gives their least number
+			if (args.length > 2)
+				((QBFPT_Inverse) grasp.ObjFunction).getConstraints().add(new CardinalityConstraint(args.length > 3 ? Integer.parseInt(args[3]) : 0, Integer.parseInt(args[2])));
 			Solution<Integer> bestSol = grasp.solve();		
 			System.out.println("maxVal = " + bestSol);
 			long endTime   = System.currentTimeMillis();
@@ -2,12 +2,13 @@ package problems.qbf.solvers;
 
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.Map;
 
 import metaheuristics.grasp.PopGRASP;
-import problems.qbf.QBFPT_Inverse;
+import problems.IntIncrementalEvaluator;
+import problems.qbf.QBFIncrementalEvaluator;
 import problems.qbf.QBF_Inverse;
+import solutions.BinarySolution;
+import solutions.CandidateList;
 import solutions.Solution;
 
 public class Pop_GRASP_QBF extends PopGRASP<Integer> {
@@ -40,7 +41,7 @@ public class Pop_GRASP_QBF extends PopGRASP<Integer> {
 	@Override
 	public ArrayList<Integer> makeCL() {
 
-		ArrayList<Integer> _CL = new ArrayList<Integer>();
+		ArrayList<Integer> _CL = new CandidateList(ObjFunction.getDomainSize());
 		for (int i = 0; i < ObjFunction.getDomainSize(); i++) {
 			Integer cand = new Integer(i);
 			_CL.add(cand);
@@ -72,57 +73,20 @@ public class Pop_GRASP_QBF extends PopGRASP<Integer> {
 	@Override
 	public void updateCL() {
 
-		QBFPT_Inverse QBFPT_Inverse = (QBFPT_Inverse) super.ObjFunction;
-		Integer[][] triples = QBFPT_Inverse.triples;
-//		mount filled triples
-		Map<Integer[], Integer> filledTriples = new HashMap<Integer[], Integer> ();			
-		for (int i = 0; i < super.incumbentSol.size(); i++) {
-			Integer item = super.incumbentSol.get(i);
-			for (int j = 0; j < triples.length; j++) {				
-				Integer tripleCount = filledTriples.get(triples[j]);						
-				Boolean tripleCountNull = tripleCount == null,
-						candidateMatch = triples[j][0].equals(item) || triples[j][1].equals(item) || triples[j][2].equals(item);
-//				System.out.println("\tTriple ("+triples[j][0]+", "+triples[j][1]+","+triples[j][2]+")");
-				if (candidateMatch) 
-					if (tripleCountNull)
-						filledTriples.put(triples[j], 1);
-					else if (tripleCount == 1) 
-						filledTriples.put(triples[j], 2);
-					else
-						break;
-//					System.out.println("\tCandidate "+item+" passed in triple ("+triples[j][0]+", "+triples[j][1]+","+triples[j][2]+")");													
-			}
-		}
-//		mount cl
-		ArrayList<Integer> oldCL = super.CL; 
-		super.CL = new ArrayList<Integer>();
-		for (int i = 0; i < oldCL.size(); i++) {
-			Boolean candidateIn = true;
-			Integer item = oldCL.get(i);
-			for (Integer[] triple : filledTriples.keySet()) {
-				Integer tripleCount = filledTriples.get(triple);
-				if (tripleCount != null && tripleCount == 2 && (triple[0].equals(item) || triple[1].equals(item) || triple[2].equals(item))) {
-//					System.out.println("\tCandidate "+item+" break in triple ("+triple[0]+", "+triple[1]+","+triple[2]+") that already has "+tripleCount);
-					candidateIn = false;
-					break;
-				}
-			}
-			if (candidateIn)
-				super.CL.add(item);
-		}
+		// do nothing since all elements off the solution are viable candidates.
 
 	}
 
 	/**
 	 * {@inheritDoc}
 	 * 
-	 * This createEmptySol instantiates an empty solution and it attributes a
-	 * zero cost, since it is known that a QBF solution with all variables set
-	 * to zero has also zero cost.
+	 * This createEmptySol instantiates an empty binary solution and it
+	 * attributes a zero cost, since it is known that a QBF solution with all
+	 * variables set to zero has also zero cost.
 	 */
 	@Override
 	public Solution<Integer> createEmptySol() {
-		Solution<Integer> sol = new Solution<Integer>();
+		Solution<Integer> sol = new BinarySolution(ObjFunction.getDomainSize());
 		sol.cost = 0.0;
 		return sol;
 	}
@@ -136,55 +100,48 @@ public class Pop_GRASP_QBF extends PopGRASP<Integer> {
 	@Override
 	public Solution<Integer> localSearch() {
 
-		Double minDeltaCost;
+		double minDeltaCost;
 		Integer bestCandIn = null, bestCandOut = null;
+		int[] bestInsertion = new int[1], bestRemoval = new int[1], bestExchange = new int[2];
+		IntIncrementalEvaluator evaluator = (IntIncrementalEvaluator) incumbentEvaluator;
 
 		do {
 			minDeltaCost = Double.POSITIVE_INFINITY;
 			updateCL();
 				
 			// Evaluate insertions
-			for (Integer candIn : CL) {
-				double deltaCost = ObjFunction.evaluateInsertionCost(candIn, incumbentSol);
-				if (deltaCost < minDeltaCost) {
-					minDeltaCost = deltaCost;
-					bestCandIn = candIn;
-					bestCandOut = null;
-				}
+			double insertionCost = evaluator.evaluateBestInsertion(CL, bestInsertion);
+			if (insertionCost < minDeltaCost) {
+				minDeltaCost = insertionCost;
+				bestCandIn = bestInsertion[0];
+				bestCandOut = null;
 			}
 			// Evaluate removals
-			for (Integer candOut : incumbentSol) {
-				double deltaCost = ObjFunction.evaluateRemovalCost(candOut, incumbentSol);
-				if (deltaCost < minDeltaCost) {
-					minDeltaCost = deltaCost;
-					bestCandIn = null;
-					bestCandOut = candOut;
-				}
+			double removalCost = evaluator.evaluateBestRemoval(bestRemoval);
+			if (removalCost < minDeltaCost) {
+				minDeltaCost = removalCost;
+				bestCandIn = null;
+				bestCandOut = incumbentSol.get(bestRemoval[0]);
 			}
 			// Evaluate exchanges
-			for (Integer candIn : CL) {
-				for (Integer candOut : incumbentSol) {
-					double deltaCost = ObjFunction.evaluateExchangeCost(candIn, candOut, incumbentSol);
-					if (deltaCost < minDeltaCost) {
-						minDeltaCost = deltaCost;
-						bestCandIn = candIn;
-						bestCandOut = candOut;
-					}
-				}
+			double exchangeCost = evaluator.evaluateBestExchange(CL, bestExchange);
+			if (exchangeCost < minDeltaCost) {
+				minDeltaCost = exchangeCost;
+				bestCandIn = CL.get(bestExchange[0]);
+				bestCandOut = incumbentSol.get(bestExchange[1]);
 			}
 			// Implement the best move, if it reduces the solution cost.
-			if (minDeltaCost < -Double.MIN_VALUE) {
+			if (minDeltaCost < 0) {
 				if (bestCandOut != null) {
-					incumbentSol.remove(bestCandOut);
+					evaluator.removeElement(bestCandOut);
 					CL.add(bestCandOut);
 				}
 				if (bestCandIn != null) {
-					incumbentSol.add(bestCandIn);
+					evaluator.insertElement(bestCandIn);
 					CL.remove(bestCandIn);
 				}
-				ObjFunction.evaluate(incumbentSol);
 			}
-		} while (minDeltaCost < -Double.MIN_VALUE);
+		} while (minDeltaCost < 0);
 
 		return null;
 	}
@@ -196,6 +153,7 @@ public class Pop_GRASP_QBF extends PopGRASP<Integer> {
 	public static void main(String[] args) throws IOException {
 
 		long startTime = System.currentTimeMillis();
+		QBFIncrementalEvaluator.moveHeaps = true;
 		Pop_GRASP_QBF grasp = new Pop_GRASP_QBF(Double.parseDouble(args[0]), 1000, "instances/"+args[1]);
 		Solution<Integer> bestSol = grasp.solve();
 		System.out.println("maxVal = " + bestSol);
@@ -0,0 +1,546 @@
+package solutions;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * A solution for problems whose elements are the indices of binary variables,
+ * such as the QBF family. Membership is kept in a bitset and the elements in a
+ * primitive array, so that membership tests, insertions and removals are done
+ * in constant time. Removals move the last element into the position of the
+ * removed one, therefore the order of the elements is not preserved. Since an
+ * element is either in the solution or not, inserting an element twice has no
+ * effect. The solution can be used wherever a {@link Solution} of Integer is
+ * expected: positional insertions shift the elements as in any list but
+ * reject an element which is already in the solution, a replacement by an
+ * element at another position exchanges the two positions, and the list
+ * iterators and sublists remove elements keeping the order of the others.
+ *
+ * @author ccavellucci, fusberti
+ */
+@SuppressWarnings("serial")
+public class BinarySolution extends Solution<Integer> {
+
+	/**
+	 * The bitset of the elements which are in the solution.
+	 */
+	protected final long[] members;
+
+	/**
+	 * The elements in the solution, stored in positions [0, count).
+	 */
+	protected final int[] elements;
+
+	/**
+	 * The position of each element in {@link #elements}.
+	 */
+	protected final int[] positions;
+
+	/**
+	 * The number of elements in the solution.
+	 */
+	protected int count;
+
+	/**
+	 * Creates an empty solution.
+	 *
+	 * @param domainSize
+	 *            the number of binary variables of the problem.
+	 */
+	public BinarySolution(int domainSize) {
+		super();
+		members = new long[(domainSize + 63) >>> 6];
+		elements = new int[domainSize];
+		positions = new int[domainSize];
+	}
+
+	/**
+	 * Creates a copy of a solution.
+	 *
+	 * @param sol
+	 *            the solution being copied.
+	 */
+	public BinarySolution(BinarySolution sol) {
+		super();
+		members = sol.members.clone();
+		elements = sol.elements.clone();
+		positions = sol.positions.clone();
+		count = sol.count;
+		cost = sol.cost;
+	}
+
+	/**
+	 * Gives the number of binary variables of the problem.
+	 *
+	 * @return the size of the domain.
+	 */
+	public int getDomainSize() {
+		return elements.length;
+	}
+
+	/**
+	 * Checks whether an element is in the solution.
+	 *
+	 * @param elem
+	 *            the element being checked.
+	 * @return true if the element is in the solution.
+	 */
+	public boolean contains(int elem) {
+		return (members[elem >>> 6] & (1L << elem)) != 0;
+	}
+
+	/**
+	 * Gives the Hamming distance to another solution of the same domain, that
+	 * is, the number of variables whose values differ, by a popcount of the
+	 * symmetric difference of the bitsets.
+	 *
+	 * @param other
+	 *            the other solution.
+	 * @return the number of elements in exactly one of the solutions.
+	 */
+	public int hammingDistance(BinarySolution other) {
+		if (other.members.length != members.length)
+			throw new IllegalArgumentException("Solutions of different domains: " + getDomainSize() + " and "
+					+ other.getDomainSize());
+		int distance = 0;
+		for (int w = 0; w < members.length; w++) {
+			distance += Long.bitCount(members[w] ^ other.members[w]);
+		}
+		return distance;
+	}
+
+	/**
+	 * Gives the element at a position of the solution.
+	 *
+	 * @param index
+	 *            the position of the element.
+	 * @return the element.
+	 */
+	public int elementAt(int index) {
+		if (index >= count)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+		return elements[index];
+	}
+
+	/**
+	 * Inserts an element into the solution.
+	 *
+	 * @param elem
+	 *            the element being inserted.
+	 * @return true if the element was not in the solution.
+	 */
+	public boolean addElement(int elem) {
+		if (contains(elem))
+			return false;
+		members[elem >>> 6] |= 1L << elem;
+		positions[elem] = count;
+		elements[count++] = elem;
+		return true;
+	}
+
+	/**
+	 * Removes an element from the solution, moving the last element into its
+	 * position.
+	 *
+	 * @param elem
+	 *            the element being removed.
+	 * @return true if the element was in the solution.
+	 */
+	public boolean removeElement(int elem) {
+		if (!contains(elem))
+			return false;
+		members[elem >>> 6] &= ~(1L << elem);
+		int last = elements[--count];
+		elements[positions[elem]] = last;
+		positions[last] = positions[elem];
+		return true;
+	}
+
+	@Override
+	public int size() {
+		return count;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return count == 0;
+	}
+
+	@Override
+	public boolean contains(Object o) {
+		return (o instanceof Integer) && inDomain((Integer) o) && contains(((Integer) o).intValue());
+	}
+
+	@Override
+	public int indexOf(Object o) {
+		return contains(o) ? positions[(Integer) o] : -1;
+	}
+
+	@Override
+	public int lastIndexOf(Object o) {
+		return indexOf(o);
+	}
+
+	@Override
+	public Integer get(int index) {
+		return elementAt(index);
+	}
+
+	@Override
+	public boolean add(Integer e) {
+		addElement(e);
+		return true;
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends Integer> c) {
+		boolean changed = false;
+		for (Integer e : c) {
+			changed |= addElement(e);
+		}
+		return changed;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		return (o instanceof Integer) && inDomain((Integer) o) && removeElement((Integer) o);
+	}
+
+	@Override
+	public Integer remove(int index) {
+		int elem = elementAt(index);
+		removeElement(elem);
+		return elem;
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		boolean changed = false;
+		for (Object o : c) {
+			changed |= remove(o);
+		}
+		return changed;
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		return removeIf(e -> !c.contains(e));
+	}
+
+	@Override
+	public boolean removeIf(Predicate<? super Integer> filter) {
+		boolean changed = false;
+		for (int k = count - 1; k >= 0; k--) {
+			if (filter.test(elements[k])) {
+				removeElement(elements[k]);
+				changed = true;
+			}
+		}
+		return changed;
+	}
+
+	@Override
+	public void clear() {
+		for (int k = 0; k < count; k++) {
+			members[elements[k] >>> 6] = 0L;
+		}
+		count = 0;
+	}
+
+	@Override
+	public Iterator<Integer> iterator() {
+		return new Iterator<Integer>() {
+
+			int cursor = 0;
+
+			boolean removable = false;
+
+			@Override
+			public boolean hasNext() {
+				return cursor < count;
+			}
+
+			@Override
+			public Integer next() {
+				if (cursor >= count)
+					throw new NoSuchElementException();
+				removable = true;
+				return elements[cursor++];
+			}
+
+			@Override
+			public void remove() {
+				if (!removable)
+					throw new IllegalStateException();
+				removable = false;
+				removeElement(elements[--cursor]);
+			}
+
+		};
+	}
+
+	@Override
+	public void forEach(Consumer<? super Integer> action) {
+		for (int k = 0; k < count; k++) {
+			action.accept(elements[k]);
+		}
+	}
+
+	@Override
+	public Spliterator<Integer> spliterator() {
+		return Spliterators.spliterator(toArray(), Spliterator.ORDERED | Spliterator.DISTINCT);
+	}
+
+	@Override
+	public Object[] toArray() {
+		Object[] a = new Object[count];
+		for (int k = 0; k < count; k++) {
+			a[k] = elements[k];
+		}
+		return a;
+	}
+
+	@Override
+	@SuppressWarnings("unchecked")
+	public <T> T[] toArray(T[] a) {
+		if (a.length < count)
+			a = Arrays.copyOf(a, count);
+		for (int k = 0; k < count; k++) {
+			a[k] = (T) Integer.valueOf(elements[k]);
+		}
+		if (a.length > count)
+			a[count] = null;
+		return a;
+	}
+
+	@Override
+	public boolean equals(Object o) {
+		if (o == this)
+			return true;
+		if (!(o instanceof List))
+			return false;
+		List<?> other = (List<?>) o;
+		if (other.size() != count)
+			return false;
+		int k = 0;
+		for (Object e : other) {
+			if (!Integer.valueOf(elements[k++]).equals(e))
+				return false;
+		}
+		return true;
+	}
+
+	@Override
+	public int hashCode() {
+		int hash = 1;
+		for (int k = 0; k < count; k++) {
+			hash = 31 * hash + elements[k];
+		}
+		return hash;
+	}
+
+	/**
+	 * Replaces the element at a position of the solution. If the new element
+	 * is already at another position, the two positions exchange their
+	 * elements, so that the solution keeps no duplicates and
+	 * {@link java.util.Collections#swap(List, int, int)} works on it.
+	 */
+	@Override
+	public Integer set(int index, Integer element) {
+		int old = elementAt(index);
+		int elem = element;
+		if (elem != old) {
+			if (contains(elem)) {
+				int other = positions[elem];
+				elements[other] = old;
+				positions[old] = other;
+			} else {
+				members[old >>> 6] &= ~(1L << old);
+				members[elem >>> 6] |= 1L << elem;
+			}
+			elements[index] = elem;
+			positions[elem] = index;
+		}
+		return old;
+	}
+
+	/**
+	 * Inserts an element at a position of the solution, shifting the elements
+	 * from that position on.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if the element is already in the solution.
+	 */
+	@Override
+	public void add(int index, Integer element) {
+		if (index < 0 || index > count)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+		int elem = element;
+		if (contains(elem))
+			throw new IllegalArgumentException("Element already in the solution: " + elem);
+		members[elem >>> 6] |= 1L << elem;
+		for (int k = count; k > index; k--) {
+			elements[k] = elements[k - 1];
+			positions[elements[k]] = k;
+		}
+		elements[index] = elem;
+		positions[elem] = index;
+		count++;
+	}
+
+	/**
+	 * Inserts the elements of a collection at a position of the solution, in
+	 * their order, skipping those which are already in it.
+	 */
+	@Override
+	public boolean addAll(int index, Collection<? extends Integer> c) {
+		if (index < 0 || index > count)
+			throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + count);
+		int k = index;
+		for (Integer e : c) {
+			if (!contains(e.intValue()))
+				add(k++, e);
+		}
+		return k > index;
+	}
+
+	/**
+	 * Gives a list iterator over the solution. Its removals keep the order of
+	 * the remaining elements, unlike {@link #removeElement(int)}.
+	 */
+	@Override
+	public ListIterator<Integer> listIterator() {
+		return new Positions().listIterator();
+	}
+
+	/**
+	 * Gives a list iterator over the solution. Its removals keep the order of
+	 * the remaining elements, unlike {@link #removeElement(int)}.
+	 */
+	@Override
+	public ListIterator<Integer> listIterator(int index) {
+		return new Positions().listIterator(index);
+	}
+
+	/**
+	 * Gives a view of a range of positions of the solution. Its removals keep
+	 * the order of the remaining elements, unlike {@link #removeElement(int)}.
+	 */
+	@Override
+	public List<Integer> subList(int fromIndex, int toIndex) {
+		return new Positions().subList(fromIndex, toIndex);
+	}
+
+	/**
+	 * Replaces every element by the result of an operator, which must not
+	 * give the same element for two positions.
+	 *
+	 * @throws IllegalArgumentException
+	 *             if two positions are given the same element, or an element
+	 *             out of the domain, in which case the solution is left
+	 *             unchanged.
+	 */
+	@Override
+	public void replaceAll(UnaryOperator<Integer> operator) {
+		int size = count;
+		int[] original = Arrays.copyOf(elements, size);
+		int[] replaced = new int[size];
+		for (int k = 0; k < size; k++) {
+			replaced[k] = operator.apply(original[k]);
+			if (!inDomain(replaced[k]))
+				throw new IllegalArgumentException("Element out of the domain: " + replaced[k]);
+		}
+		clear();
+		for (int k = 0; k < size; k++) {
+			if (!addElement(replaced[k])) {
+				clear();
+				for (int l = 0; l < size; l++) {
+					addElement(original[l]);
+				}
+				throw new IllegalArgumentException("Element given twice: " + replaced[k]);
+			}
+		}
+	}
+
+	@Override
+	public void sort(Comparator<? super Integer> c) {
+		Integer[] sorted = toArray(new Integer[count]);
+		Arrays.sort(sorted, c);
+		for (int k = 0; k < count; k++) {
+			elements[k] = sorted[k];
+			positions[elements[k]] = k;
+		}
+	}
+
+	@Override
+	public Object clone() {
+		return new BinarySolution(this);
+	}
+
+	/**
+	 * Removes the element at a position of the solution, shifting the
+	 * elements after it.
+	 */
+	private int removeAt(int index) {
+		int elem = elementAt(index);
+		members[elem >>> 6] &= ~(1L << elem);
+		count--;
+		for (int k = index; k < count; k++) {
+			elements[k] = elements[k + 1];
+			positions[elements[k]] = k;
+		}
+		return elem;
+	}
+
+	/**
+	 * Checks whether an element is within the domain of the problem.
+	 */
+	private boolean inDomain(int elem) {
+		return elem >= 0 && elem < elements.length;
+	}
+
+	/**
+	 * A view of the positions of the solution, whose removals keep the order
+	 * of the remaining elements, which backs its list iterators and sublists.
+	 */
+	private class Positions extends AbstractList<Integer> {
+
+		@Override
+		public Integer get(int index) {
+			return elementAt(index);
+		}
+
+		@Override
+		public int size() {
+			return count;
+		}
+
+		@Override
+		public Integer set(int index, Integer element) {
+			return BinarySolution.this.set(index, element);
+		}
+
+		@Override
+		public void add(int index, Integer element) {
+			BinarySolution.this.add(index, element);
+		}
+
+		@Override
+		public Integer remove(int index) {
+			return removeAt(index);
+		}
+
+	}
+
+}
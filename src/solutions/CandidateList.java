@@ -0,0 +1,337 @@
+package solutions;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+
+/**
+ * A Candidate List for problems whose elements are the indices of binary
+ * variables, which stamps its elements in list order and tells a
+ * {@link Listener} of every element entering or leaving the list.
+ * This lets the candidates be kept in other structures, such as heaps ordered
+ * by cost and then by list order, without scanning the list. Appending and
+ * removing elements take constant time apart from the shifts of the list;
+ * positional insertions, replacements and sorts, as well as removals of a
+ * copy of a repeated element, stamp every element again, in time linear in
+ * the list and the domain.
+ *
+ * @author ccavellucci, fusberti
+ */
+@SuppressWarnings("serial")
+public class CandidateList extends ArrayList<Integer> {
+
+	/**
+	 * Receiver of the elements entering or leaving a {@link CandidateList}.
+	 */
+	public interface Listener {
+
+		/**
+		 * Called after an element entered the list, or after an element
+		 * already in the list was stamped again because the list was changed
+		 * in place.
+		 *
+		 * @param elem
+		 *            the element.
+		 * @param stamp
+		 *            the stamp of the element, which is larger than the
+		 *            stamps of every element before it in the list.
+		 */
+		public abstract void added(int elem, int stamp);
+
+		/**
+		 * Called after an element left the list.
+		 *
+		 * @param elem
+		 *            the element removed.
+		 */
+		public abstract void removed(int elem);
+
+	}
+
+	/**
+	 * The stamp of each element, given when it entered the list or when the
+	 * list was changed in place.
+	 */
+	protected final int[] stamps;
+
+	/**
+	 * The number of copies of each element in the list.
+	 */
+	protected final int[] copies;
+
+	/**
+	 * The stamp of the next element appended.
+	 */
+	protected int nextStamp;
+
+	/**
+	 * The listener of the list, or null.
+	 */
+	protected Listener listener;
+
+	/**
+	 * Creates an empty list.
+	 *
+	 * @param domainSize
+	 *            the number of binary variables of the problem.
+	 */
+	public CandidateList(int domainSize) {
+		super(domainSize);
+		stamps = new int[domainSize];
+		copies = new int[domainSize];
+	}
+
+	/**
+	 * Sets the listener of the list, replacing the previous one.
+	 *
+	 * @param listener
+	 *            the listener, or null.
+	 */
+	public void setListener(Listener listener) {
+		this.listener = listener;
+	}
+
+	/**
+	 * Gives the listener of the list.
+	 *
+	 * @return the listener, or null.
+	 */
+	public Listener getListener() {
+		return listener;
+	}
+
+	/**
+	 * Gives the stamp of an element in the list.
+	 *
+	 * @param elem
+	 *            the element.
+	 * @return the stamp of the element, which orders it in the list.
+	 */
+	public int stampOf(int elem) {
+		return stamps[elem];
+	}
+
+	/**
+	 * Tells whether an element is in the list, in constant time.
+	 *
+	 * @param elem
+	 *            the element.
+	 * @return true if the element is in the list.
+	 */
+	public boolean containsElement(int elem) {
+		return copies[elem] > 0;
+	}
+
+	@Override
+	public boolean add(Integer e) {
+		super.add(e);
+		if (copies[e]++ == 0) {
+			stamps[e] = nextStamp++;
+			if (listener != null)
+				listener.added(e, stamps[e]);
+		}
+		return true;
+	}
+
+	@Override
+	public boolean addAll(Collection<? extends Integer> c) {
+		for (Integer e : c) {
+			add(e);
+		}
+		return !c.isEmpty();
+	}
+
+	@Override
+	public Integer remove(int index) {
+		Integer e = super.remove(index);
+		if (left(e))
+			restamp();
+		return e;
+	}
+
+	@Override
+	public boolean remove(Object o) {
+		if (!super.remove(o))
+			return false;
+		if (left((Integer) o))
+			restamp();
+		return true;
+	}
+
+	@Override
+	public boolean removeIf(Predicate<? super Integer> filter) {
+		boolean[] copyLeft = new boolean[1];
+		boolean removed = super.removeIf(e -> {
+			if (!filter.test(e))
+				return false;
+			copyLeft[0] |= left(e);
+			return true;
+		});
+		if (copyLeft[0])
+			restamp();
+		return removed;
+	}
+
+	@Override
+	public boolean removeAll(Collection<?> c) {
+		return removeIf(c::contains);
+	}
+
+	@Override
+	public boolean retainAll(Collection<?> c) {
+		return removeIf(e -> !c.contains(e));
+	}
+
+	@Override
+	protected void removeRange(int fromIndex, int toIndex) {
+		boolean copyLeft = false;
+		for (int k = fromIndex; k < toIndex; k++) {
+			copyLeft |= left(get(k));
+		}
+		super.removeRange(fromIndex, toIndex);
+		if (copyLeft)
+			restamp();
+	}
+
+	@Override
+	public void clear() {
+		for (int k = 0; k < size(); k++) {
+			left(get(k));
+		}
+		super.clear();
+	}
+
+	@Override
+	public void add(int index, Integer element) {
+		super.add(index, element);
+		recount();
+	}
+
+	@Override
+	public boolean addAll(int index, Collection<? extends Integer> c) {
+		if (!super.addAll(index, c))
+			return false;
+		recount();
+		return true;
+	}
+
+	@Override
+	public Integer set(int index, Integer element) {
+		Integer old = super.set(index, element);
+		recount();
+		return old;
+	}
+
+	@Override
+	public void replaceAll(UnaryOperator<Integer> operator) {
+		super.replaceAll(operator);
+		recount();
+	}
+
+	@Override
+	public void sort(Comparator<? super Integer> c) {
+		super.sort(c);
+		recount();
+	}
+
+	/**
+	 * Gives a view of a range of the list, whose changes go through the
+	 * methods of the list so that the stamps and the listener are kept up to
+	 * date.
+	 */
+	@Override
+	public List<Integer> subList(int fromIndex, int toIndex) {
+		return new Positions().subList(fromIndex, toIndex);
+	}
+
+	/**
+	 * Accounts for a copy of an element which left the list.
+	 *
+	 * @return true if other copies of the element are still in the list, in
+	 *         which case its first copy may have moved and the list must be
+	 *         stamped again.
+	 */
+	private boolean left(int elem) {
+		if (--copies[elem] > 0)
+			return true;
+		if (listener != null)
+			listener.removed(elem);
+		return false;
+	}
+
+	/**
+	 * Recounts the copies of the elements after the list was changed in
+	 * place, telling the listener of the elements which left it, and stamps
+	 * the elements again. This costs time linear in the domain and is only
+	 * done by the positional changes, which the constructions and local
+	 * searches do not use.
+	 */
+	private void recount() {
+		int[] before = copies.clone();
+		Arrays.fill(copies, 0);
+		for (int k = 0; k < size(); k++) {
+			copies[get(k)]++;
+		}
+		if (listener != null) {
+			for (int elem = 0; elem < copies.length; elem++) {
+				if (before[elem] > 0 && copies[elem] == 0)
+					listener.removed(elem);
+			}
+		}
+		restamp();
+	}
+
+	/**
+	 * Stamps the elements again in the order of their first copies, telling
+	 * the listener of their new stamps.
+	 */
+	private void restamp() {
+		int base = nextStamp;
+		for (int k = 0; k < size(); k++) {
+			int elem = get(k);
+			if (stamps[elem] < base) {
+				stamps[elem] = nextStamp++;
+				if (listener != null)
+					listener.added(elem, stamps[elem]);
+			}
+		}
+	}
+
+	/**
+	 * A view of the positions of the list, which backs its sublists.
+	 */
+	private class Positions extends AbstractList<Integer> {
+
+		@Override
+		public Integer get(int index) {
+			return CandidateList.this.get(index);
+		}
+
+		@Override
+		public int size() {
+			return CandidateList.this.size();
+		}
+
+		@Override
+		public Integer set(int index, Integer element) {
+			return CandidateList.this.set(index, element);
+		}
+
+		@Override
+		public void add(int index, Integer element) {
+			CandidateList.this.add(index, element);
+		}
+
+		@Override
+		public Integer remove(int index) {
+			return CandidateList.this.remove(index);
+		}
+
+	}
+
+}
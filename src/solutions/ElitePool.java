@@ -0,0 +1,190 @@
+package solutions;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * A bounded pool of elite solutions of a minimization problem, kept for
+ * intensification procedures such as path relinking. A solution is admitted
+ * only if it is at least a minimum Hamming distance away from every solution
+ * in the pool and, once the pool is full, only if it improves on the worst
+ * solution, which it then replaces. The solutions are kept sorted by cost, so
+ * that the best and the worst ones are found in O(1), and a solution which is
+ * not better than the worst one of a full pool is rejected in O(1), so the
+ * pool can be offered every local optimum of a GRASP.
+ *
+ * The distance between two {@link BinarySolution}s is a popcount of their
+ * bitsets; other solutions are compared element by element.
+ *
+ * @author ccavellucci, fusberti
+ * @param <E>
+ *            Generic type of the element which composes the solution.
+ */
+public class ElitePool<E> {
+
+	/**
+	 * The solutions in the pool, from the best to the worst, in positions
+	 * [0, size).
+	 */
+	protected final Solution<E>[] entries;
+
+	/**
+	 * The number of solutions in the pool.
+	 */
+	protected int size;
+
+	/**
+	 * The least Hamming distance between a solution being admitted and the
+	 * solutions in the pool.
+	 */
+	protected final int minDistance;
+
+	/**
+	 * Creates an empty pool.
+	 *
+	 * @param capacity
+	 *            the largest number of solutions in the pool.
+	 * @param minDistance
+	 *            the least Hamming distance between a solution being admitted
+	 *            and the solutions in the pool (at least 1, so that a solution
+	 *            is never admitted twice).
+	 */
+	@SuppressWarnings({ "unchecked", "rawtypes" })
+	public ElitePool(int capacity, int minDistance) {
+		if (capacity < 1)
+			throw new IllegalArgumentException("The capacity must be positive: " + capacity);
+		if (minDistance < 1)
+			throw new IllegalArgumentException("The minimum distance must be positive: " + minDistance);
+		this.entries = (Solution<E>[]) new Solution[capacity];
+		this.minDistance = minDistance;
+	}
+
+	/**
+	 * Offers a solution to the pool, which keeps a copy of it if it is
+	 * admitted.
+	 *
+	 * @param sol
+	 *            the solution offered.
+	 * @return true if the solution was admitted.
+	 */
+	public boolean offer(Solution<E> sol) {
+
+		if (size == entries.length && !(sol.cost < entries[size - 1].cost))
+			return false;
+		for (int k = 0; k < size; k++) {
+			if (distance(sol, entries[k]) < minDistance)
+				return false;
+		}
+
+		/* A full pool drops its worst solution. */
+		int k = (size == entries.length) ? size - 1 : size++;
+		while (k > 0 && entries[k - 1].cost > sol.cost) {
+			entries[k] = entries[k - 1];
+			k--;
+		}
+		entries[k] = copy(sol);
+		return true;
+
+	}
+
+	/**
+	 * Gives the best solution in the pool.
+	 *
+	 * @return the solution of least cost, or null if the pool is empty.
+	 */
+	public Solution<E> best() {
+		return (size > 0) ? entries[0] : null;
+	}
+
+	/**
+	 * Gives the worst solution in the pool.
+	 *
+	 * @return the solution of largest cost, or null if the pool is empty.
+	 */
+	public Solution<E> worst() {
+		return (size > 0) ? entries[size - 1] : null;
+	}
+
+	/**
+	 * Gives a solution of the pool by its rank.
+	 *
+	 * @param rank
+	 *            the rank of the solution, 0 being the best.
+	 * @return the solution.
+	 */
+	public Solution<E> get(int rank) {
+		if (rank >= size)
+			throw new IndexOutOfBoundsException("Rank: " + rank + ", Size: " + size);
+		return entries[rank];
+	}
+
+	/**
+	 * Gives the solutions in the pool.
+	 *
+	 * @return an unmodifiable view of the solutions, from the best to the
+	 *         worst.
+	 */
+	public List<Solution<E>> getSolutions() {
+		return Collections.unmodifiableList(Arrays.asList(entries).subList(0, size));
+	}
+
+	/**
+	 * Gives the number of solutions in the pool.
+	 *
+	 * @return the number of solutions.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * Gives the largest number of solutions in the pool.
+	 *
+	 * @return the capacity of the pool.
+	 */
+	public int getCapacity() {
+		return entries.length;
+	}
+
+	/**
+	 * Removes every solution from the pool.
+	 */
+	public void clear() {
+		Arrays.fill(entries, 0, size, null);
+		size = 0;
+	}
+
+	/**
+	 * Gives the Hamming distance between two solutions, that is, the number
+	 * of elements in exactly one of them.
+	 *
+	 * @param a
+	 *            a solution.
+	 * @param b
+	 *            another solution.
+	 * @return the distance between the solutions.
+	 */
+	public static <E> int distance(Solution<E> a, Solution<E> b) {
+		if (a instanceof BinarySolution && b instanceof BinarySolution)
+			return ((BinarySolution) a).hammingDistance((BinarySolution) b);
+		Set<E> elements = new HashSet<E>(a), others = new HashSet<E>(b);
+		int common = 0;
+		for (E elem : others) {
+			if (elements.contains(elem))
+				common++;
+		}
+		return elements.size() + others.size() - 2 * common;
+	}
+
+	/**
+	 * Copies a solution, keeping its class.
+	 */
+	@SuppressWarnings("unchecked")
+	private static <E> Solution<E> copy(Solution<E> sol) {
+		return (Solution<E>) sol.clone();
+	}
+
+}
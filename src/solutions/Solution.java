@@ -5,7 +5,7 @@ import java.util.ArrayList;
 @SuppressWarnings("serial")
 public class Solution<E> extends ArrayList<E> {
 	
-	public Double cost = Double.POSITIVE_INFINITY;
+	public double cost = Double.POSITIVE_INFINITY;
 	
 	public Solution() {
 		super();